@@ -4,8 +4,21 @@ const api = axios.create({
   baseURL: 'http://localhost:8080/api',
 })
 
+// Percorre todas as páginas de uma listagem por cursor (usado só onde a lista completa é necessária)
+async function fetchAllPages(path) {
+  const items = []
+  let after
+  do {
+    const res = await api.get(path, { params: { after, limit: 500 } })
+    items.push(...res.data.items)
+    after = res.data.nextCursor
+  } while (after)
+  return items
+}
+
 export const rawMaterialApi = {
-  findAll: () => api.get('/raw-materials'),
+  findPage: (params) => api.get('/raw-materials', { params }),
+  findAll: () => fetchAllPages('/raw-materials'),
   findById: (id) => api.get(`/raw-materials/${id}`),
   create: (data) => api.post('/raw-materials', data),
   update: (id, data) => api.put(`/raw-materials/${id}`, data),
@@ -13,7 +26,7 @@ export const rawMaterialApi = {
 }
 
 export const productApi = {
-  findAll: () => api.get('/products'),
+  findPage: (params) => api.get('/products', { params }),
   findById: (id) => api.get(`/products/${id}`),
   create: (data) => api.post('/products', data),
   update: (id, data) => api.put(`/products/${id}`, data),
@@ -22,4 +35,5 @@ export const productApi = {
 
 export const productionApi = {
   getSuggestion: () => api.get('/production/suggestion'),
+  execute: (plan) => api.post('/production/execute', { plan }),
 }
@@ -0,0 +1,66 @@
+package com.projedata.productionmanager.benchmark;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Gera catálogos sintéticos e reprodutíveis para os benchmarks.
+ *
+ * @param ingredientsPerProduct densidade da BOM (limitada ao número de matérias-primas)
+ * @param scarcity estoque de cada matéria-prima como fração da demanda de uma unidade de cada produto
+ *                 que a usa, multiplicada por 10; valores baixos tornam o estoque o gargalo
+ */
+public record CatalogGenerator(int products, int rawMaterials, int ingredientsPerProduct, double scarcity, long seed) {
+
+    public record Catalog(List<Product> products, List<RawMaterial> rawMaterials) {}
+
+    public Catalog generate() {
+        Random random = new Random(seed);
+        List<RawMaterial> materials = new ArrayList<>(rawMaterials);
+        for (int i = 0; i < rawMaterials; i++) {
+            materials.add(RawMaterial.builder()
+                    .id((long) i + 1)
+                    .code("RM-" + (i + 1))
+                    .name("Material " + (i + 1))
+                    .stockQuantity(BigDecimal.ZERO)
+                    .build());
+        }
+
+        double[] demand = new double[rawMaterials];
+        int density = Math.min(ingredientsPerProduct, rawMaterials);
+        List<Product> catalog = new ArrayList<>(products);
+        for (int j = 0; j < products; j++) {
+            Product product = Product.builder()
+                    .id((long) j + 1)
+                    .code("P-" + (j + 1))
+                    .name("Product " + (j + 1))
+                    .price(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                    .build();
+            int first = random.nextInt(rawMaterials);
+            for (int k = 0; k < density; k++) {
+                // Matérias-primas consecutivas (módulo) evitam sorteios repetidos no mesmo produto
+                int material = (first + k * 7919) % rawMaterials;
+                BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(10_000), 2);
+                demand[material] += quantity.doubleValue();
+                product.getIngredients().add(ProductIngredient.builder()
+                        .id((long) j * density + k + 1)
+                        .product(product)
+                        .rawMaterial(materials.get(material))
+                        .quantityRequired(quantity)
+                        .build());
+            }
+            catalog.add(product);
+        }
+
+        for (int i = 0; i < rawMaterials; i++) {
+            materials.get(i).setStockQuantity(BigDecimal.valueOf(Math.round(demand[i] * 10 * scarcity * 100), 2));
+        }
+        return new Catalog(catalog, materials);
+    }
+}
@@ -0,0 +1,140 @@
+package com.projedata.productionmanager.benchmark;
+
+import com.projedata.productionmanager.config.ProductionProperties;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import com.projedata.productionmanager.service.CatalogChangedEvent;
+import com.projedata.productionmanager.service.CatalogSnapshot;
+import com.projedata.productionmanager.service.CatalogSnapshotService;
+import com.projedata.productionmanager.service.ComponentExecutor;
+import com.projedata.productionmanager.service.DecimalGreedySolver;
+import com.projedata.productionmanager.service.GreedySolver;
+import com.projedata.productionmanager.service.LocalSearchSolver;
+import com.projedata.productionmanager.service.OptimalSolver;
+import com.projedata.productionmanager.service.ProductionCalculatorService;
+import com.projedata.productionmanager.service.ProductionSolverRegistry;
+import com.projedata.productionmanager.service.SolverMode;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o calculador sobre catálogos sintéticos. Os tamanhos padrão são modestos; para varrer a
+ * faixa completa (100 a 100k produtos, 50 a 20k matérias-primas) sobrescreva os parâmetros, por exemplo:
+ * {@code -Djmh.args="-prof gc -p products=100,10000,100000 -p rawMaterials=50,20000"}.
+ * O modo SampleTime reporta percentis de latência e {@code -prof gc} reporta bytes alocados por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductionCalculatorBenchmark {
+
+    @Param({"100", "10000"})
+    private int products;
+
+    @Param({"50", "2000"})
+    private int rawMaterials;
+
+    @Param({"20"})
+    private int ingredientsPerProduct;
+
+    @Param({"0.1", "1.0"})
+    private double scarcity;
+
+    @Param({"50"})
+    private long optimalBudgetMs;
+
+    private CatalogSnapshotService snapshots;
+    private ProductionCalculatorService calculator;
+    private CompiledCatalog compiled;
+    private CatalogGenerator.Catalog catalog;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = new CatalogGenerator(products, rawMaterials, ingredientsPerProduct, scarcity, 42L).generate();
+        snapshots = new CatalogSnapshotService(repository(ProductRepository.class), repository(RawMaterialRepository.class),
+                new SimpleMeterRegistry());
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        ProductionProperties properties = new ProductionProperties(
+                new ProductionProperties.Optimal(optimalBudgetMs, optimalBudgetMs),
+                new ProductionProperties.Scenarios(0, 100),
+                new ProductionProperties.Execution(5),
+                new ProductionProperties.Jobs(2, 32, 600_000, 1000),
+                new ProductionProperties.Materialization(false, 250, 2000),
+                new ProductionProperties.Decomposition(true, 5000),
+                new ProductionProperties.Solvers("greedy", "optimal"));
+        ComponentExecutor executor = new ComponentExecutor(properties, pool);
+        GreedySolver greedy = new GreedySolver(executor, new DecimalGreedySolver(), snapshots);
+        ProductionSolverRegistry registry = new ProductionSolverRegistry(List.of(greedy, new DecimalGreedySolver(),
+                new OptimalSolver(executor), new LocalSearchSolver(greedy)), properties);
+        calculator = new ProductionCalculatorService(snapshots, properties, registry, executor, new SimpleMeterRegistry());
+        compiled = snapshots.current().compiled();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /** Só o laço greedy sobre o kernel compilado. */
+    @Benchmark
+    public int[] greedyKernel() {
+        return compiled.greedy(compiled.stock());
+    }
+
+    /** Montagem do snapshot: ordenação, índices e compilação CSR a partir das entidades. */
+    @Benchmark
+    public CatalogSnapshot compileSnapshot() {
+        return CatalogSnapshot.of(0, catalog.products(), catalog.rawMaterials());
+    }
+
+    /** Caminho completo de uma requisição após uma escrita: recarga do snapshot e greedy. */
+    @Benchmark
+    public ProductionSuggestionResponse greedyAfterCatalogChange() {
+        snapshots.onCatalogChanged(CatalogChangedEvent.product(null));
+        return calculator.calculate();
+    }
+
+    /** Branch-and-bound limitado por {@code optimalBudgetMs}. */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public ProductionSuggestionResponse optimal() {
+        return calculator.calculate(SolverMode.OPTIMAL, optimalBudgetMs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T repository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "findAllWithIngredients" -> new ArrayList<>(catalog.products());
+                    case "findAll" -> new ArrayList<>(catalog.rawMaterials());
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "Stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
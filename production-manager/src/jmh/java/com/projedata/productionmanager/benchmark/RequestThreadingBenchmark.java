@@ -0,0 +1,161 @@
+package com.projedata.productionmanager.benchmark;
+
+import com.projedata.productionmanager.ProductionManagerApplication;
+import com.projedata.productionmanager.dto.ProductBatchRequest;
+import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.service.ProductService;
+import com.projedata.productionmanager.service.RawMaterialService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga HTTP comparando o Tomcat em threads de plataforma com o modo de threads virtuais
+ * ({@code spring.threads.virtual.enabled} + limitador JDBC). A aplicação sobe numa porta aleatória com um catálogo
+ * sintético; 256 clientes concorrentes disparam listagens paginadas (que vão ao banco a cada chamada) e sugestões
+ * (servidas do snapshot em memória). {@code dbLatencyMs} segura cada conexão emprestada por esse tempo, simulando
+ * um banco em rede. Throughput dá requisições/ms e SampleTime dá p50/p99/p99.9:
+ * {@code -Djmh.args="RequestThreading -p dbLatencyMs=0,5,20"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    @Param({"0", "5"})
+    private long dbLatencyMs;
+
+    @Param({"2000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long latency = dbLatencyMs;
+        context = new SpringApplicationBuilder(ProductionManagerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + threading.equals("virtual"),
+                        "spring.datasource.url=jdbc:h2:mem:load-" + threading + "-" + latency + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=warn")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new NetworkLatency(latency)))
+                .run();
+        seed();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    /** Página de 50 produtos filtrada por prefixo: duas consultas ao banco por requisição. */
+    @Benchmark
+    public int listProducts() throws IOException, InterruptedException {
+        return get("/products?limit=50&q=P-" + ThreadLocalRandom.current().nextInt(10));
+    }
+
+    /** Sugestão greedy sobre o snapshot em memória: CPU, sem banco enquanto o catálogo não muda. */
+    @Benchmark
+    public int suggestion() throws IOException, InterruptedException {
+        return get("/production/suggestion");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " -> " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private void seed() {
+        RawMaterialService rawMaterials = context.getBean(RawMaterialService.class);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            ids.add(rawMaterials.create(new RawMaterialRequest("RM-" + i, "Material " + i, new BigDecimal(1000))).id());
+        }
+        Random random = new Random(42);
+        List<ProductRequest> requests = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            List<ProductIngredientRequest> ingredients = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                ingredients.add(new ProductIngredientRequest(ids.get((i + j * 7) % ids.size()),
+                        BigDecimal.valueOf(1 + random.nextInt(5))));
+            }
+            requests.add(new ProductRequest("P-" + i, "Product " + i, BigDecimal.valueOf(1 + random.nextInt(100)),
+                    ingredients));
+        }
+        context.getBean(ProductService.class).createBatch(new ProductBatchRequest(requests));
+    }
+
+    /** Segura a conexão por {@code latencyMs} logo após o empréstimo, como uma ida e volta a um banco remoto. */
+    private record NetworkLatency(long latencyMs) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (latencyMs == 0 || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(latencyMs);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+    }
+}
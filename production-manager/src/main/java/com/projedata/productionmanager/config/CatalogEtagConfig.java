@@ -0,0 +1,22 @@
+package com.projedata.productionmanager.config;
+
+import com.projedata.productionmanager.controller.CatalogEtagInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class CatalogEtagConfig {
+
+    @Bean
+    public WebMvcConfigurer catalogEtagConfigurer(CatalogEtagInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // Depois do interceptor de métricas, para que os 304 também sejam contados
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**").order(1);
+            }
+        };
+    }
+}
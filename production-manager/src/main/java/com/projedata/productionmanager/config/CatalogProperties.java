@@ -0,0 +1,25 @@
+package com.projedata.productionmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "catalog")
+public record CatalogProperties(
+        @DefaultValue Batch batch,
+        @DefaultValue Imports imports
+) {
+
+    /**
+     * @param maxProducts limite de produtos por requisição de {@code POST /api/products/batch}
+     */
+    public record Batch(
+            @DefaultValue("10000") int maxProducts
+    ) {}
+
+    /**
+     * @param chunkSize linhas por transação nas importações de estoque e de composição
+     */
+    public record Imports(
+            @DefaultValue("1000") int chunkSize
+    ) {}
+}
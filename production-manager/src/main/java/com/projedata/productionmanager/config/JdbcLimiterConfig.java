@@ -0,0 +1,47 @@
+package com.projedata.productionmanager.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Só com threads virtuais: envolve o {@link DataSource} num {@link ConcurrencyLimitedDataSource}
+ * e publica {@code jdbc.limiter.available} e {@code jdbc.limiter.waiting}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class JdbcLimiterConfig {
+
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyLimiter(ObjectProvider<JdbcLimiterProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                JdbcLimiterProperties limits = properties.getObject();
+                return new ConcurrencyLimitedDataSource(dataSource, limits.maxConcurrent(), limits.acquireTimeoutMs());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder jdbcLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("jdbc.limiter.available", limited, ConcurrencyLimitedDataSource::availablePermits)
+                        .register(registry);
+                Gauge.builder("jdbc.limiter.waiting", limited, ConcurrencyLimitedDataSource::waiting)
+                        .register(registry);
+            }
+        };
+    }
+}
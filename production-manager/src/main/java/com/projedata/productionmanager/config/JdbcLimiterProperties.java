@@ -0,0 +1,16 @@
+package com.projedata.productionmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limitador de conexões JDBC simultâneas, ativo só com {@code spring.threads.virtual.enabled=true}.
+ *
+ * @param maxConcurrent    conexões emprestadas ao mesmo tempo; não deve passar do tamanho do pool do Hikari
+ * @param acquireTimeoutMs espera máxima por uma vaga antes de a requisição falhar com {@code 503}
+ */
+@ConfigurationProperties(prefix = "jdbc.limiter")
+public record JdbcLimiterProperties(
+        @DefaultValue("10") int maxConcurrent,
+        @DefaultValue("5000") long acquireTimeoutMs
+) {}
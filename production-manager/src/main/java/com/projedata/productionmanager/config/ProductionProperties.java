@@ -0,0 +1,80 @@
+package com.projedata.productionmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "production")
+public record ProductionProperties(
+        @DefaultValue Optimal optimal,
+        @DefaultValue Scenarios scenarios,
+        @DefaultValue Execution execution,
+        @DefaultValue Jobs jobs,
+        @DefaultValue Materialization materialization,
+        @DefaultValue Decomposition decomposition,
+        @DefaultValue Solvers solvers
+) {
+
+    public record Optimal(
+            @DefaultValue("500") long defaultBudgetMs,
+            @DefaultValue("5000") long maxBudgetMs
+    ) {}
+
+    /**
+     * @param parallelism tamanho do ForkJoinPool dos cenários e dos componentes; 0 usa o número de processadores
+     */
+    public record Scenarios(
+            @DefaultValue("0") int parallelism,
+            @DefaultValue("100") int maxScenarios
+    ) {}
+
+    /**
+     * @param maxAttempts tentativas de {@code POST /api/production/execute} quando outra escrita altera
+     *                    as mesmas matérias-primas entre a leitura e o commit
+     */
+    public record Execution(
+            @DefaultValue("5") int maxAttempts
+    ) {}
+
+    /**
+     * @param poolSize      threads que calculam jobs de {@code POST /api/production/jobs}
+     * @param queueCapacity jobs aguardando thread; acima disso a submissão responde {@code 503}
+     * @param resultTtlMs   tempo que um job concluído, com falha ou cancelado continua consultável
+     * @param maxRetained   jobs encerrados guardados ao mesmo tempo; jobs na fila ou rodando não contam nem saem
+     */
+    public record Jobs(
+            @DefaultValue("2") int poolSize,
+            @DefaultValue("32") int queueCapacity,
+            @DefaultValue("600000") long resultTtlMs,
+            @DefaultValue("1000") int maxRetained
+    ) {}
+
+    /**
+     * @param enabled    mantém a sugestão greedy pré-calculada; desligado, cada requisição calcula na hora
+     * @param debounceMs silêncio exigido após a última escrita antes do recálculo
+     * @param maxDelayMs atraso máximo do recálculo sob escritas contínuas, contado da primeira escrita pendente
+     */
+    public record Materialization(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("250") long debounceMs,
+            @DefaultValue("2000") long maxDelayMs
+    ) {}
+
+    /**
+     * @param enabled     resolve em paralelo os grupos de produtos que não compartilham matérias-primas
+     * @param minProducts tamanho mínimo do catálogo para o greedy ser dividido; abaixo disso o custo das
+     *                    tarefas supera o ganho. O modo ótimo divide sempre que houver mais de um componente
+     */
+    public record Decomposition(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("5000") int minProducts
+    ) {}
+
+    /**
+     * @param greedy  nome do solver que atende {@code mode=greedy} e a sugestão materializada
+     * @param optimal nome do solver que atende {@code mode=optimal}
+     */
+    public record Solvers(
+            @DefaultValue("greedy") String greedy,
+            @DefaultValue("optimal") String optimal
+    ) {}
+}
@@ -0,0 +1,48 @@
+package com.projedata.productionmanager.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * ForkJoinPool dos solvers que conhece as próprias threads, para que a comparação de solvers some a alocação
+ * do trabalho feito nos componentes e cenários em paralelo.
+ */
+public class SolverPool extends ForkJoinPool {
+
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+
+    public SolverPool(int parallelism) {
+        super(parallelism, pool -> new Worker((SolverPool) pool), null, false);
+    }
+
+    /** Threads vivas do pool neste instante. */
+    public Collection<Thread> workers() {
+        return Collections.unmodifiableSet(workers);
+    }
+
+    private static final class Worker extends ForkJoinWorkerThread {
+
+        private final SolverPool pool;
+
+        Worker(SolverPool pool) {
+            super(pool);
+            this.pool = pool;
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            pool.workers.add(this);
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            pool.workers.remove(this);
+            super.onTermination(exception);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.projedata.productionmanager.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class SolverPoolConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public SolverPool solverPool(ProductionProperties properties) {
+        int parallelism = properties.scenarios().parallelism();
+        return new SolverPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Fila limitada e AbortPolicy: com a fila cheia a submissão falha na hora em vez de acumular trabalho
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor productionJobExecutor(ProductionProperties properties, MeterRegistry meterRegistry) {
+        ProductionProperties.Jobs jobs = properties.jobs();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(jobs.poolSize(), jobs.poolSize(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(jobs.queueCapacity()), new CustomizableThreadFactory("production-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "production.jobs", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,19 @@
+package com.projedata.productionmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Livro de movimentações de estoque.
+ *
+ * @param compactionIntervalMs intervalo entre rodadas do compactador; é também o atraso máximo com que
+ *                             listagens e a calculadora enxergam um lançamento
+ * @param compactionBatchSize  matérias-primas compactadas por rodada, cada uma em sua própria transação
+ * @param historyLimit         lançamentos devolvidos por padrão em {@code GET /api/raw-materials/{id}/movements}
+ */
+@ConfigurationProperties(prefix = "stock.ledger")
+public record StockLedgerProperties(
+        @DefaultValue("1000") long compactionIntervalMs,
+        @DefaultValue("500") int compactionBatchSize,
+        @DefaultValue("50") int historyLimit
+) {}
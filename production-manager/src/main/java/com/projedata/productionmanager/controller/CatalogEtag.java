@@ -0,0 +1,17 @@
+package com.projedata.productionmanager.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca leituras cuja resposta depende só da URL e da versão do catálogo. O {@link CatalogEtagInterceptor}
+ * responde {@code 304} a um {@code If-None-Match} com a versão atual antes de o método ser chamado.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CatalogEtag {
+}
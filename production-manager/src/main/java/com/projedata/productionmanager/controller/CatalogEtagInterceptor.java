@@ -0,0 +1,44 @@
+package com.projedata.productionmanager.controller;
+
+import com.projedata.productionmanager.service.CatalogSnapshotService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * ETag forte para os métodos anotados com {@link CatalogEtag}, derivado da versão do catálogo que toda escrita
+ * confirmada avança. A comparação com {@code If-None-Match} acontece antes do controller, então um {@code 304}
+ * não consulta o banco nem recalcula a sugestão. {@code Cache-Control: no-cache} faz o navegador revalidar
+ * sempre, em vez de reaproveitar a resposta sem perguntar.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogEtagInterceptor implements HandlerInterceptor {
+
+    // A versão recomeça do zero a cada inicialização: o instante de subida evita reaproveitar ETags antigos
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CatalogEtag.class)) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag(catalogSnapshotService.version()));
+    }
+
+    /**
+     * ETag de uma versão específica, para respostas calculadas sobre uma versão anterior à atual (sugestão
+     * materializada ainda não recalculada): o cliente não pode guardá-las sob o ETag da versão atual.
+     */
+    public String etag(long catalogVersion) {
+        return "\"" + instance + "-" + catalogVersion + "\"";
+    }
+}
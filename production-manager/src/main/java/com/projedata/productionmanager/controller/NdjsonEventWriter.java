@@ -0,0 +1,45 @@
+package com.projedata.productionmanager.controller;
+
+import com.projedata.productionmanager.dto.ImportEvent;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Escreve os eventos da importação como NDJSON direto na resposta. A resposta só é aberta no primeiro
+ * evento, para que erros de cabeçalho ainda possam virar um 400 comum; progresso e fim forçam flush.
+ */
+final class NdjsonEventWriter implements Consumer<ImportEvent> {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final HttpServletResponse response;
+    private final JsonMapper jsonMapper;
+    private OutputStream out;
+
+    NdjsonEventWriter(HttpServletResponse response, JsonMapper jsonMapper) {
+        this.response = response;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public void accept(ImportEvent event) {
+        try {
+            if (out == null) {
+                response.setContentType(NDJSON);
+                out = response.getOutputStream();
+            }
+            out.write(jsonMapper.writeValueAsBytes(event));
+            out.write('\n');
+            if (!"reject".equals(event.event())) {
+                out.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
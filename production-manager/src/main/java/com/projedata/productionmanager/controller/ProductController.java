@@ -1,15 +1,27 @@
 package com.projedata.productionmanager.controller;
 
+import com.projedata.productionmanager.dto.PageResponse;
+import com.projedata.productionmanager.dto.ProductBatchRequest;
+import com.projedata.productionmanager.dto.ProductBatchResponse;
 import com.projedata.productionmanager.dto.ProductRequest;
-import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.dto.ProductResponse;
+import com.projedata.productionmanager.service.CatalogExportService;
+import com.projedata.productionmanager.service.CatalogFormat;
+import com.projedata.productionmanager.service.CatalogImportService;
+import com.projedata.productionmanager.service.PageQuery;
 import com.projedata.productionmanager.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/products")
@@ -17,25 +29,58 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService service;
+    private final CatalogImportService importService;
+    private final CatalogExportService exportService;
+    private final JsonMapper jsonMapper;
 
+    @CatalogEtag
     @GetMapping
-    public List<Product> findAll() {
-        return service.findAll();
+    public PageResponse<ProductResponse> findPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "code") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return service.findPage(PageQuery.of(after, limit, q, sort, direction, ProductService.SORTABLE_FIELDS));
     }
 
+    @PostMapping("/import")
+    public void importBom(@RequestParam(defaultValue = "csv") String format,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        importService.importProducts(request.getInputStream(), CatalogFormat.from(format),
+                new NdjsonEventWriter(response, jsonMapper));
+    }
+
+    @CatalogEtag
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        CatalogFormat catalogFormat = CatalogFormat.from(format);
+        response.setContentType(catalogFormat == CatalogFormat.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"products." + catalogFormat.name().toLowerCase(Locale.ROOT) + "\"");
+        exportService.exportProducts(catalogFormat, response.getOutputStream());
+    }
+
+    @CatalogEtag
     @GetMapping("/{id}")
-    public Product findById(@PathVariable Long id) {
+    public ProductResponse findById(@PathVariable Long id) {
         return service.findById(id);
     }
 
     @PostMapping
-    public ResponseEntity<Product> create(@RequestBody @Valid ProductRequest request) {
-        Product created = service.create(request);
+    public ResponseEntity<ProductResponse> create(@RequestBody @Valid ProductRequest request) {
+        ProductResponse created = service.create(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/batch")
+    public ProductBatchResponse createBatch(@RequestBody @Valid ProductBatchRequest request) {
+        return service.createBatch(request);
+    }
+
     @PutMapping("/{id}")
-    public Product update(@PathVariable Long id, @RequestBody @Valid ProductRequest request) {
+    public ProductResponse update(@PathVariable Long id, @RequestBody @Valid ProductRequest request) {
         return service.update(id, request);
     }
 
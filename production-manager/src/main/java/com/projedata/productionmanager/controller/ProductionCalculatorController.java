@@ -1,21 +1,114 @@
 package com.projedata.productionmanager.controller;
 
+import com.projedata.productionmanager.dto.ProductionExecutionRequest;
+import com.projedata.productionmanager.dto.ProductionExecutionResponse;
+import com.projedata.productionmanager.dto.ProductionJobRequest;
+import com.projedata.productionmanager.dto.ProductionJobResponse;
+import com.projedata.productionmanager.dto.ProductionScenariosRequest;
+import com.projedata.productionmanager.dto.ProductionScenariosResponse;
 import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.dto.SolverComparisonResponse;
 import com.projedata.productionmanager.service.ProductionCalculatorService;
+import com.projedata.productionmanager.service.ProductionExecutionService;
+import com.projedata.productionmanager.service.ProductionJobService;
+import com.projedata.productionmanager.service.SolverMode;
+import com.projedata.productionmanager.service.SuggestionMaterializer;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URI;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/production")
 @RequiredArgsConstructor
 public class ProductionCalculatorController {
 
     private final ProductionCalculatorService service;
+    private final ProductionExecutionService executionService;
+    private final ProductionJobService jobService;
+    private final SuggestionMaterializer materializer;
+    private final CatalogEtagInterceptor etagInterceptor;
 
+    @CatalogEtag
     @GetMapping("/suggestion")
-    public ProductionSuggestionResponse getSuggestion() {
-        return service.calculate();
+    public ProductionSuggestionResponse getSuggestion(@RequestParam(defaultValue = "greedy") String mode,
+                                                      @RequestParam(required = false) Long budgetMs,
+                                                      @RequestParam(required = false) String improve,
+                                                      @RequestParam(required = false) String solver,
+                                                      HttpServletResponse response) {
+        if (solver != null) {
+            if (improve != null) {
+                throw new IllegalArgumentException("improve cannot be combined with solver");
+            }
+            return service.calculate(solver, budgetMs);
+        }
+        SolverMode solverMode = SolverMode.from(mode);
+        if (solverMode != SolverMode.GREEDY || improve != null) {
+            return service.calculate(solverMode, budgetMs, improve == null ? null : parseImprove(improve));
+        }
+        // Greedy já vem pré-calculado; se estiver stale, o ETag passa a ser o da versão calculada
+        SuggestionMaterializer.Materialized materialized = materializer.current();
+        response.setHeader(HttpHeaders.ETAG, etagInterceptor.etag(materialized.catalogVersion()));
+        return materialized.suggestion();
+    }
+
+    @GetMapping("/solvers")
+    public List<String> listSolvers() {
+        return service.solverNames();
+    }
+
+    @GetMapping("/solvers/comparison")
+    public SolverComparisonResponse compareSolvers(@RequestParam(required = false) Long budgetMs) {
+        return service.compareSolvers(budgetMs);
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<ProductionJobResponse> submitJob(
+            @RequestBody(required = false) @Valid ProductionJobRequest request) {
+        ProductionJobResponse job = jobService.submit(request);
+        return ResponseEntity.accepted().location(URI.create("/api/production/jobs/" + job.id())).body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ProductionJobResponse findJob(@PathVariable String id) {
+        return jobService.find(id);
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ProductionJobResponse cancelJob(@PathVariable String id) {
+        return jobService.cancel(id);
+    }
+
+    @PostMapping("/execute")
+    public ProductionExecutionResponse execute(@RequestBody @Valid ProductionExecutionRequest request) {
+        return executionService.execute(request);
+    }
+
+    @PostMapping("/scenarios")
+    public ProductionScenariosResponse compareScenarios(@RequestBody @Valid ProductionScenariosRequest request) {
+        return service.calculateScenarios(request);
+    }
+
+    // Aceita "200ms", "1s" ou só o número de milissegundos
+    private static long parseImprove(String improve) {
+        try {
+            return DurationStyle.detectAndParse(improve, ChronoUnit.MILLIS).toMillis();
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid improve duration: " + improve);
+        }
     }
 }
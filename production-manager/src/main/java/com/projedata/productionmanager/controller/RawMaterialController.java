@@ -1,14 +1,25 @@
 package com.projedata.productionmanager.controller;
 
+import com.projedata.productionmanager.dto.PageResponse;
 import com.projedata.productionmanager.dto.RawMaterialRequest;
-import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.dto.StockMovementRequest;
+import com.projedata.productionmanager.dto.StockMovementResponse;
+import com.projedata.productionmanager.service.CatalogFormat;
+import com.projedata.productionmanager.service.CatalogImportService;
+import com.projedata.productionmanager.service.PageQuery;
 import com.projedata.productionmanager.service.RawMaterialService;
+import com.projedata.productionmanager.service.StockLedgerService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,28 +28,57 @@ import java.util.List;
 public class RawMaterialController {
 
     private final RawMaterialService service;
+    private final StockLedgerService stockLedger;
+    private final CatalogImportService importService;
+    private final JsonMapper jsonMapper;
 
+    @CatalogEtag
     @GetMapping
-    public List<RawMaterial> findAll() {
-        return service.findAll();
+    public PageResponse<RawMaterialResponse> findPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "code") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return service.findPage(PageQuery.of(after, limit, q, sort, direction, RawMaterialService.SORTABLE_FIELDS));
     }
 
+    @PostMapping("/import")
+    public void importStock(@RequestParam(defaultValue = "csv") String format,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        importService.importRawMaterials(request.getInputStream(), CatalogFormat.from(format),
+                new NdjsonEventWriter(response, jsonMapper));
+    }
+
+    @CatalogEtag
     @GetMapping("/{id}")
-    public RawMaterial findById(@PathVariable Long id) {
+    public RawMaterialResponse findById(@PathVariable Long id) {
         return service.findById(id);
     }
 
     @PostMapping
-    public ResponseEntity<RawMaterial> create(@RequestBody @Valid RawMaterialRequest request) {
-        RawMaterial created = service.create(request);
+    public ResponseEntity<RawMaterialResponse> create(@RequestBody @Valid RawMaterialRequest request) {
+        RawMaterialResponse created = service.create(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @PutMapping("/{id}")
-    public RawMaterial update(@PathVariable Long id, @RequestBody @Valid RawMaterialRequest request) {
+    public RawMaterialResponse update(@PathVariable Long id, @RequestBody @Valid RawMaterialRequest request) {
         return service.update(id, request);
     }
 
+    @PostMapping("/{id}/movements")
+    public ResponseEntity<StockMovementResponse> recordMovement(@PathVariable Long id,
+                                                                @RequestBody @Valid StockMovementRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockLedger.record(id, request));
+    }
+
+    // Sem ETag: lançamentos novos não mudam a versão do catálogo até serem compactados
+    @GetMapping("/{id}/movements")
+    public List<StockMovementResponse> movements(@PathVariable Long id, @RequestParam(required = false) Integer limit) {
+        return stockLedger.history(id, limit);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
@@ -0,0 +1,31 @@
+package com.projedata.productionmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Uma linha do relatório NDJSON de importação: {@code reject} para cada linha recusada,
+ * {@code progress} a cada bloco confirmado e {@code done} ao final, com os totais.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportEvent(
+        String event,
+        Long line,
+        String error,
+        Long lines,
+        Long created,
+        Long updated,
+        Long rejected
+) {
+
+    public static ImportEvent reject(long line, String error) {
+        return new ImportEvent("reject", line, error, null, null, null, null);
+    }
+
+    public static ImportEvent progress(long lines, long created, long updated, long rejected) {
+        return new ImportEvent("progress", null, null, lines, created, updated, rejected);
+    }
+
+    public static ImportEvent done(long lines, long created, long updated, long rejected) {
+        return new ImportEvent("done", null, null, lines, created, updated, rejected);
+    }
+}
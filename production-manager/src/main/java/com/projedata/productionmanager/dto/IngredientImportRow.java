@@ -0,0 +1,20 @@
+package com.projedata.productionmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/** Ingrediente importado por código: exatamente um de {@code rawMaterialCode} ou {@code subAssemblyCode}. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IngredientImportRow(
+        String rawMaterialCode,
+        String subAssemblyCode,
+        @NotNull @DecimalMin("0.01") BigDecimal quantityRequired
+) {
+
+    public IngredientImportRow(String rawMaterialCode, BigDecimal quantityRequired) {
+        this(rawMaterialCode, null, quantityRequired);
+    }
+}
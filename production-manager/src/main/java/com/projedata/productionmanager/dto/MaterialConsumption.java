@@ -0,0 +1,10 @@
+package com.projedata.productionmanager.dto;
+
+import java.math.BigDecimal;
+
+public record MaterialConsumption(
+        Long rawMaterialId,
+        String rawMaterialCode,
+        BigDecimal consumed,
+        BigDecimal remaining
+) {}
@@ -0,0 +1,12 @@
+package com.projedata.productionmanager.dto;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por keyset. {@code nextCursor} é o código do último item, a ser enviado
+ * em {@code ?after=}; fica {@code null} na última página.
+ */
+public record PageResponse<T>(
+        List<T> items,
+        String nextCursor
+) {}
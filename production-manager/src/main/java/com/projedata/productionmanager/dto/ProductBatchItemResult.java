@@ -0,0 +1,20 @@
+package com.projedata.productionmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductBatchItemResult(
+        int index,
+        String code,
+        Long id,
+        String error
+) {
+
+    public static ProductBatchItemResult created(int index, String code, Long id) {
+        return new ProductBatchItemResult(index, code, id, null);
+    }
+
+    public static ProductBatchItemResult failed(int index, String code, String error) {
+        return new ProductBatchItemResult(index, code, null, error);
+    }
+}
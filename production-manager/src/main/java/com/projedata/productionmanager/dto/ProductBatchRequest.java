@@ -0,0 +1,13 @@
+package com.projedata.productionmanager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Os itens não levam {@code @Valid}: cada um é validado separadamente e os erros voltam por item,
+ * sem rejeitar o lote inteiro.
+ */
+public record ProductBatchRequest(
+        @NotEmpty List<ProductRequest> products
+) {}
@@ -0,0 +1,9 @@
+package com.projedata.productionmanager.dto;
+
+import java.util.List;
+
+public record ProductBatchResponse(
+        int created,
+        int failed,
+        List<ProductBatchItemResult> results
+) {}
@@ -0,0 +1,17 @@
+package com.projedata.productionmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Produto importado com a lista completa de ingredientes, que substitui a composição atual. */
+public record ProductImportRow(
+        @NotBlank String code,
+        @NotBlank String name,
+        @NotNull @DecimalMin("0.01") BigDecimal price,
+        @NotNull List<@Valid @NotNull IngredientImportRow> ingredients
+) {}
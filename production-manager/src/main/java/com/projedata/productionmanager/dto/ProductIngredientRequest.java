@@ -5,7 +5,18 @@ import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
 
+/** Ingrediente de uma composição: exatamente um de {@code rawMaterialId} ou {@code subAssemblyId}. */
 public record ProductIngredientRequest(
-        @NotNull Long rawMaterialId,
+        Long rawMaterialId,
+        Long subAssemblyId,
         @NotNull @DecimalMin("0.01") BigDecimal quantityRequired
-) {}
+) {
+
+    public ProductIngredientRequest(Long rawMaterialId, BigDecimal quantityRequired) {
+        this(rawMaterialId, null, quantityRequired);
+    }
+
+    public static ProductIngredientRequest subAssembly(Long productId, BigDecimal quantityRequired) {
+        return new ProductIngredientRequest(null, productId, quantityRequired);
+    }
+}
@@ -0,0 +1,14 @@
+package com.projedata.productionmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/** Só um de {@code rawMaterial} e {@code subAssembly} vem preenchido. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductIngredientResponse(
+        Long id,
+        RawMaterialSummary rawMaterial,
+        SubAssemblySummary subAssembly,
+        BigDecimal quantityRequired
+) {}
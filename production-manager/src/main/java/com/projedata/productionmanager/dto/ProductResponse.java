@@ -0,0 +1,36 @@
+package com.projedata.productionmanager.dto;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductResponse(
+        Long id,
+        String code,
+        String name,
+        BigDecimal price,
+        List<ProductIngredientResponse> ingredients
+) {
+
+    /** Converte uma entidade com ingredientes e matérias-primas já carregados (snapshot ou recém-salva). */
+    public static ProductResponse from(Product product) {
+        List<ProductIngredientResponse> ingredients = product.getIngredients().stream()
+                .map(ProductResponse::ingredient)
+                .toList();
+        return new ProductResponse(product.getId(), product.getCode(), product.getName(), product.getPrice(), ingredients);
+    }
+
+    private static ProductIngredientResponse ingredient(ProductIngredient ingredient) {
+        RawMaterial rawMaterial = ingredient.getRawMaterial();
+        Product subAssembly = ingredient.getSubAssembly();
+        return new ProductIngredientResponse(ingredient.getId(),
+                rawMaterial == null ? null
+                        : new RawMaterialSummary(rawMaterial.getId(), rawMaterial.getCode(), rawMaterial.getName()),
+                subAssembly == null ? null
+                        : new SubAssemblySummary(subAssembly.getId(), subAssembly.getCode(), subAssembly.getName()),
+                ingredient.getQuantityRequired());
+    }
+}
@@ -0,0 +1,14 @@
+package com.projedata.productionmanager.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Map;
+
+/**
+ * @param plan unidades a produzir por id de produto
+ */
+public record ProductionExecutionRequest(
+        @NotEmpty Map<@NotNull Long, @NotNull @Min(1) Integer> plan
+) {}
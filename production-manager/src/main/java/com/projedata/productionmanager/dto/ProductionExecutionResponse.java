@@ -0,0 +1,11 @@
+package com.projedata.productionmanager.dto;
+
+import java.util.List;
+
+/**
+ * @param attempts transações necessárias; mais de uma indica conflito com outra escrita nas mesmas matérias-primas
+ */
+public record ProductionExecutionResponse(
+        List<MaterialConsumption> consumed,
+        int attempts
+) {}
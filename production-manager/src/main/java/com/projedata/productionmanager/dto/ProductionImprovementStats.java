@@ -0,0 +1,18 @@
+package com.projedata.productionmanager.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado da busca local sobre o plano greedy.
+ *
+ * @param greedyTotal   valor do plano greedy de partida
+ * @param gain          quanto o plano devolvido supera o greedy; nunca negativo
+ * @param moves         movimentos avaliados dentro do prazo
+ * @param acceptedMoves movimentos que melhoraram o plano
+ */
+public record ProductionImprovementStats(
+        BigDecimal greedyTotal,
+        BigDecimal gain,
+        int moves,
+        int acceptedMoves
+) {}
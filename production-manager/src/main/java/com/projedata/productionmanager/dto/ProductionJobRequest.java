@@ -0,0 +1,11 @@
+package com.projedata.productionmanager.dto;
+
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Mesmos parâmetros de {@code GET /api/production/suggestion}; ambos opcionais.
+ */
+public record ProductionJobRequest(
+        String mode,
+        @Positive Long budgetMs
+) {}
@@ -0,0 +1,26 @@
+package com.projedata.productionmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * @param catalogVersion versão do catálogo na submissão; o cálculo usa um snapshot pelo menos tão novo quanto ela
+ * @param result         presente só em {@code DONE}
+ * @param error          presente só em {@code FAILED}
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductionJobResponse(
+        String id,
+        Status status,
+        String mode,
+        Long budgetMs,
+        long catalogVersion,
+        Instant submittedAt,
+        Instant completedAt,
+        ProductionSuggestionResponse result,
+        String error
+) {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+}
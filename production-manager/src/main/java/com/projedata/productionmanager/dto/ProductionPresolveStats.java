@@ -0,0 +1,18 @@
+package com.projedata.productionmanager.dto;
+
+/**
+ * Efeito do presolve sobre a sugestão.
+ *
+ * @param products   produtos com ingredientes considerados
+ * @param dead       descartados por não haver estoque para uma unidade sequer
+ * @param duplicates descartados por repetir a composição de um produto de preço maior ou igual
+ * @param dominated  descartados por pedir mais das mesmas matérias-primas que um produto de preço maior ou igual
+ * @param remaining  produtos efetivamente resolvidos
+ */
+public record ProductionPresolveStats(
+        int products,
+        int dead,
+        int duplicates,
+        int dominated,
+        int remaining
+) {}
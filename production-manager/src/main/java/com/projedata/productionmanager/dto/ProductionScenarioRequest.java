@@ -0,0 +1,12 @@
+package com.projedata.productionmanager.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record ProductionScenarioRequest(
+        String name,
+        @NotNull Map<Long, @NotNull @DecimalMin("0") BigDecimal> stockOverrides
+) {}
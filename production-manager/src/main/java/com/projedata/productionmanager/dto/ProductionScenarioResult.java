@@ -0,0 +1,9 @@
+package com.projedata.productionmanager.dto;
+
+import java.math.BigDecimal;
+
+public record ProductionScenarioResult(
+        String name,
+        ProductionSuggestionResponse suggestion,
+        BigDecimal grandTotalDelta
+) {}
@@ -0,0 +1,12 @@
+package com.projedata.productionmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record ProductionScenariosRequest(
+        String mode,
+        Long budgetMs,
+        @NotEmpty List<@Valid ProductionScenarioRequest> scenarios
+) {}
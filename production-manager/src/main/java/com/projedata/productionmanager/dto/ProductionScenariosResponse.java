@@ -0,0 +1,9 @@
+package com.projedata.productionmanager.dto;
+
+import java.util.List;
+
+public record ProductionScenariosResponse(
+        long catalogVersion,
+        ProductionSuggestionResponse baseline,
+        List<ProductionScenarioResult> scenarios
+) {}
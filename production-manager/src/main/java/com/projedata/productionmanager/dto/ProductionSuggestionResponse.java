@@ -1,9 +1,51 @@
 package com.projedata.productionmanager.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
+/**
+ * @param presolve    presente nos solvers sobre o kernel compilado (greedy, inclusive o incremental, ótimo e busca
+ *                    local); ausente no cálculo em {@code BigDecimal}
+ * @param improvement presente quando a sugestão greedy passou pela busca local ({@code improve})
+ * @param stale       presente só na sugestão materializada: {@code true} quando houve escrita depois do cálculo e um
+ *                    recálculo está pendente
+ * @param computedAt  presente só na sugestão materializada: instante em que foi calculada
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record ProductionSuggestionResponse(
         List<ProductionSuggestionItem> items,
-        BigDecimal grandTotal
-) {}
+        BigDecimal grandTotal,
+        BigDecimal optimalityGap,
+        ProductionPresolveStats presolve,
+        ProductionImprovementStats improvement,
+        Boolean stale,
+        Instant computedAt
+) {
+
+    public ProductionSuggestionResponse(List<ProductionSuggestionItem> items, BigDecimal grandTotal) {
+        this(items, grandTotal, null);
+    }
+
+    public ProductionSuggestionResponse(List<ProductionSuggestionItem> items, BigDecimal grandTotal,
+                                        BigDecimal optimalityGap) {
+        this(items, grandTotal, optimalityGap, null, null, null, null);
+    }
+
+    public ProductionSuggestionResponse materialized(boolean stale, Instant computedAt) {
+        return new ProductionSuggestionResponse(items, grandTotal, optimalityGap, presolve, improvement, stale,
+                computedAt);
+    }
+
+    public ProductionSuggestionResponse withPresolve(ProductionPresolveStats presolve) {
+        return new ProductionSuggestionResponse(items, grandTotal, optimalityGap, presolve, improvement, stale,
+                computedAt);
+    }
+
+    public ProductionSuggestionResponse improved(ProductionImprovementStats improvement) {
+        return new ProductionSuggestionResponse(items, grandTotal, optimalityGap, presolve, improvement, stale,
+                computedAt);
+    }
+}
@@ -0,0 +1,14 @@
+package com.projedata.productionmanager.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/** Linha de estoque importada; {@code name} só é obrigatório quando o código ainda não existe. */
+public record RawMaterialImportRow(
+        @NotBlank String code,
+        String name,
+        @NotNull @DecimalMin("0") BigDecimal stockQuantity
+) {}
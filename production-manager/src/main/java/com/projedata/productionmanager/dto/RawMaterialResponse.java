@@ -0,0 +1,18 @@
+package com.projedata.productionmanager.dto;
+
+import com.projedata.productionmanager.entity.RawMaterial;
+
+import java.math.BigDecimal;
+
+public record RawMaterialResponse(
+        Long id,
+        String code,
+        String name,
+        BigDecimal stockQuantity
+) {
+
+    public static RawMaterialResponse from(RawMaterial rawMaterial) {
+        return new RawMaterialResponse(rawMaterial.getId(), rawMaterial.getCode(), rawMaterial.getName(),
+                rawMaterial.getStockQuantity());
+    }
+}
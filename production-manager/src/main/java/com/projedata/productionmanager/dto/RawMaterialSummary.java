@@ -0,0 +1,7 @@
+package com.projedata.productionmanager.dto;
+
+public record RawMaterialSummary(
+        Long id,
+        String code,
+        String name
+) {}
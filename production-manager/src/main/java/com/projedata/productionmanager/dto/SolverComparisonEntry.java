@@ -0,0 +1,22 @@
+package com.projedata.productionmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * @param wallTimeMicros tempo de parede do solver, sem a compilação do catálogo
+ * @param allocatedBytes bytes alocados pela thread chamadora e pelas threads do pool dos solvers, onde rodam os
+ *                       componentes em paralelo; inclui o que outras requisições alocarem no pool durante a medição.
+ *                       Fica ausente se a JVM não mede alocação por thread
+ * @param error          mensagem quando o solver não suporta o catálogo; os demais campos de resultado ficam ausentes
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SolverComparisonEntry(
+        String solver,
+        long wallTimeMicros,
+        Long allocatedBytes,
+        BigDecimal grandTotal,
+        BigDecimal optimalityGap,
+        String error
+) {}
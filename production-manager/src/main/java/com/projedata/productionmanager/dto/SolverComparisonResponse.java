@@ -0,0 +1,9 @@
+package com.projedata.productionmanager.dto;
+
+import java.util.List;
+
+public record SolverComparisonResponse(
+        long catalogVersion,
+        long budgetMs,
+        List<SolverComparisonEntry> results
+) {}
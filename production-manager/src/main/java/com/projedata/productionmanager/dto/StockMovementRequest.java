@@ -0,0 +1,11 @@
+package com.projedata.productionmanager.dto;
+
+import com.projedata.productionmanager.entity.StockMovement;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public record StockMovementRequest(
+        @NotNull BigDecimal delta,
+        @NotNull StockMovement.Reason reason
+) {}
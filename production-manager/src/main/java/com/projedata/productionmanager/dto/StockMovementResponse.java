@@ -0,0 +1,25 @@
+package com.projedata.productionmanager.dto;
+
+import com.projedata.productionmanager.entity.StockMovement;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * @param stockQuantity estoque atual da matéria-prima logo após o lançamento; ausente no histórico
+ */
+public record StockMovementResponse(
+        Long id,
+        Long rawMaterialId,
+        BigDecimal delta,
+        StockMovement.Reason reason,
+        Instant createdAt,
+        boolean compacted,
+        BigDecimal stockQuantity
+) {
+
+    public static StockMovementResponse from(StockMovement movement, BigDecimal stockQuantity) {
+        return new StockMovementResponse(movement.getId(), movement.getRawMaterial().getId(), movement.getDelta(),
+                movement.getReason(), movement.getCreatedAt(), movement.isCompacted(), stockQuantity);
+    }
+}
@@ -0,0 +1,7 @@
+package com.projedata.productionmanager.dto;
+
+public record SubAssemblySummary(
+        Long id,
+        String code,
+        String name
+) {}
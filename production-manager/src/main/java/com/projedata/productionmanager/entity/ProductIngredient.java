@@ -7,11 +7,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Check;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-ingredients")
 @Table(name = "product_ingredients")
+@Check(constraints = "(raw_material_id IS NULL) <> (sub_assembly_id IS NULL)")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +25,8 @@ import java.math.BigDecimal;
 public class ProductIngredient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_ingredient_seq")
+    @SequenceGenerator(name = "product_ingredient_seq", sequenceName = "product_ingredient_seq", allocationSize = 50)
     private Long id;
 
     @JsonIgnore
@@ -27,11 +34,21 @@ public class ProductIngredient {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    /** Matéria-prima consumida; nula quando o ingrediente é um subconjunto. */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "raw_material_id", nullable = false)
+    @JoinColumn(name = "raw_material_id")
     private RawMaterial rawMaterial;
 
+    /** Produto intermediário (subconjunto) consumido; nulo quando o ingrediente é uma matéria-prima. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sub_assembly_id")
+    private Product subAssembly;
+
     @Column(nullable = false)
     @DecimalMin("0.01")
     private BigDecimal quantityRequired;
+
+    public ProductIngredient(Long id, Product product, RawMaterial rawMaterial, BigDecimal quantityRequired) {
+        this(id, product, rawMaterial, null, quantityRequired);
+    }
 }
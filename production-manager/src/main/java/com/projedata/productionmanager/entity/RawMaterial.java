@@ -7,10 +7,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "raw-materials")
 @Table(name = "raw_materials")
 @Data
 @NoArgsConstructor
@@ -19,7 +23,8 @@ import java.math.BigDecimal;
 public class RawMaterial {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "raw_material_seq")
+    @SequenceGenerator(name = "raw_material_seq", sequenceName = "raw_material_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -33,4 +38,8 @@ public class RawMaterial {
     @Column(nullable = false)
     @Min(0)
     private BigDecimal stockQuantity;
+
+    // Baixas de estoque concorrentes falham no commit em vez de sobrescrever umas às outras
+    @Version
+    private Long version;
 }
@@ -0,0 +1,53 @@
+package com.projedata.productionmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Lançamento do livro de estoque: só recebe {@code INSERT}. O estoque atual de uma matéria-prima é o
+ * snapshot em {@link RawMaterial#getStockQuantity()} somado aos lançamentos ainda não compactados;
+ * a compactação incorpora o delta ao snapshot e marca o lançamento, que continua no histórico.
+ */
+@Entity
+@Table(name = "stock_movements",
+        indexes = @Index(name = "idx_stock_movements_pending", columnList = "raw_material_id, compacted"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    public enum Reason { RECEIPT, CONSUMPTION, ADJUSTMENT }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_seq")
+    @SequenceGenerator(name = "stock_movement_seq", sequenceName = "stock_movement_seq", allocationSize = 50)
+    private Long id;
+
+    // Excluir a matéria-prima apaga o histórico dela no próprio banco
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "raw_material_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private RawMaterial rawMaterial;
+
+    @Column(nullable = false)
+    private BigDecimal delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Reason reason;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private boolean compacted;
+}
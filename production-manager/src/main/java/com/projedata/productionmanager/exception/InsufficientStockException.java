@@ -0,0 +1,11 @@
+package com.projedata.productionmanager.exception;
+
+/**
+ * Estoque atual não cobre o plano pedido; a transação é desfeita sem baixar nenhuma matéria-prima.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.projedata.productionmanager.metrics;
+
+import com.projedata.productionmanager.service.CatalogSnapshot;
+import com.projedata.productionmanager.service.CatalogSnapshotService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges de tamanho do catálogo lidos do último snapshot, sem forçar recarga a cada coleta.
+ */
+@Component
+public class CatalogMetrics {
+
+    public CatalogMetrics(CatalogSnapshotService catalogSnapshotService, MeterRegistry meterRegistry) {
+        register(meterRegistry, catalogSnapshotService, "catalog.products", s -> s.products().size());
+        register(meterRegistry, catalogSnapshotService, "catalog.ingredients",
+                s -> s.products().stream().mapToInt(p -> p.getIngredients().size()).sum());
+        register(meterRegistry, catalogSnapshotService, "catalog.raw_materials", s -> s.rawMaterials().size());
+        Gauge.builder("catalog.version", catalogSnapshotService, CatalogSnapshotService::version)
+                .description("Versão do catálogo, incrementada a cada escrita confirmada")
+                .register(meterRegistry);
+    }
+
+    private void register(MeterRegistry registry, CatalogSnapshotService service, String name,
+                          ToDoubleFunction<CatalogSnapshot> size) {
+        Gauge.builder(name, service, s -> {
+                    CatalogSnapshot snapshot = s.peek();
+                    return snapshot == null ? Double.NaN : size.applyAsDouble(snapshot);
+                })
+                .register(registry);
+    }
+}
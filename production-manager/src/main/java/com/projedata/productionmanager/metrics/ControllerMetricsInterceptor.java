@@ -0,0 +1,63 @@
+package com.projedata.productionmanager.metrics;
+
+import com.projedata.productionmanager.controller.ProductController;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conta e cronometra cada chamada aos controllers da aplicação, por controller e método.
+ * Quando {@link SerializationTimingAdvice} marcou o início da escrita do corpo, registra também
+ * o tempo de serialização JSON separadamente.
+ */
+@Component
+@RequiredArgsConstructor
+public class ControllerMetricsInterceptor implements HandlerInterceptor {
+
+    static final String CONTROLLER_PACKAGE = ProductController.class.getPackageName();
+    static final String START_ATTRIBUTE = ControllerMetricsInterceptor.class.getName() + ".start";
+    static final String WRITE_START_ATTRIBUTE = ControllerMetricsInterceptor.class.getName() + ".writeStart";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isApplicationController(handler)) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start) || !(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        long end = System.nanoTime();
+        Tags tags = Tags.of(
+                "controller", method.getBeanType().getSimpleName(),
+                "method", method.getMethod().getName());
+        String outcome = ex != null || response.getStatus() >= 500 ? "error"
+                : response.getStatus() >= 400 ? "client_error" : "success";
+
+        meterRegistry.counter("api.controller.calls", tags.and("outcome", outcome)).increment();
+        meterRegistry.timer("api.controller.requests", tags.and("status", String.valueOf(response.getStatus())))
+                .record(end - start, TimeUnit.NANOSECONDS);
+
+        if (request.getAttribute(WRITE_START_ATTRIBUTE) instanceof Long writeStart) {
+            meterRegistry.timer("api.controller.serialization", tags).record(end - writeStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static boolean isApplicationController(Object handler) {
+        return handler instanceof HandlerMethod method
+                && method.getBeanType().getPackageName().equals(CONTROLLER_PACKAGE);
+    }
+}
@@ -0,0 +1,32 @@
+package com.projedata.productionmanager.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+
+/**
+ * Publica as estatísticas JCache de cada região do cache de segundo nível ({@code cache.gets},
+ * {@code cache.puts}, {@code cache.evictions}, tag {@code cache} com o nome da região). Acertos e falhas
+ * vistos pelo Hibernate já saem em {@code hibernate.second.level.cache.requests}; as remoções por
+ * limite de tamanho só o provedor conhece.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        if (regionFactory instanceof JCacheRegionFactory jcache) {
+            CacheManager cacheManager = jcache.getCacheManager();
+            for (String name : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(name), "layer", "hibernate");
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.projedata.productionmanager.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Filtros compartilhados pelas listagens de produtos e matérias-primas, ambos com {@code code} único e {@code name}.
+ */
+public final class CatalogSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private CatalogSpecifications() {
+    }
+
+    /** Código ou nome começando com o prefixo, sem diferenciar maiúsculas. */
+    public static <T> Specification<T> codeOrNameStartsWith(String prefix) {
+        String pattern = escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("code")), pattern, ESCAPE),
+                cb.like(cb.lower(root.get("name")), pattern, ESCAPE));
+    }
+
+    /**
+     * Itens depois do cursor na ordem {@code (field, code)}: o código desempata valores repetidos
+     * do campo de ordenação, então nenhum item é pulado ou repetido entre páginas.
+     *
+     * @param value valor de {@code field} no item do cursor (ignorado quando {@code field} é o próprio código)
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static <T> Specification<T> after(String field, Comparable value, String code, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Path<String> codePath = root.get("code");
+            Predicate afterCode = beyond(cb, codePath, code, direction);
+            if ("code".equals(field)) {
+                return afterCode;
+            }
+            Path<Comparable> path = root.get(field);
+            return cb.or(beyond(cb, path, value, direction), cb.and(cb.equal(path, value), afterCode));
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder cb, Path<Y> path, Y value,
+                                                                     Sort.Direction direction) {
+        return direction.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
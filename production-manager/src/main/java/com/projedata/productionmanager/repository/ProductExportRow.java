@@ -0,0 +1,14 @@
+package com.projedata.productionmanager.repository;
+
+import java.math.BigDecimal;
+
+/** Produto com um de seus ingredientes; produtos sem ingredientes vêm com as colunas do ingrediente nulas. */
+public record ProductExportRow(
+        Long productId,
+        String productCode,
+        String productName,
+        BigDecimal price,
+        String rawMaterialCode,
+        String subAssemblyCode,
+        BigDecimal quantityRequired
+) {}
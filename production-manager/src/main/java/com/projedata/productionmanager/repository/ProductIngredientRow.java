@@ -0,0 +1,19 @@
+package com.projedata.productionmanager.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha plana de ingrediente com código e nome da matéria-prima ou do subconjunto, lida sem carregar entidades;
+ * as colunas do lado ausente vêm nulas.
+ */
+public record ProductIngredientRow(
+        Long productId,
+        Long id,
+        Long rawMaterialId,
+        String rawMaterialCode,
+        String rawMaterialName,
+        Long subAssemblyId,
+        String subAssemblyCode,
+        String subAssemblyName,
+        BigDecimal quantityRequired
+) {}
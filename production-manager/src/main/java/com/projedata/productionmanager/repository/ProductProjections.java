@@ -0,0 +1,12 @@
+package com.projedata.productionmanager.repository;
+
+import com.projedata.productionmanager.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductProjections {
+
+    List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, int limit);
+}
@@ -0,0 +1,21 @@
+package com.projedata.productionmanager.repository;
+
+import com.projedata.productionmanager.entity.Product;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ProductProjectionsImpl implements ProductProjections {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, int limit) {
+        return ProjectionQueries.select(entityManager, Product.class, ProductSummary.class,
+                spec, sort, limit, "id", "code", "name", "price");
+    }
+}
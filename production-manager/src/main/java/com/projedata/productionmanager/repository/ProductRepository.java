@@ -1,20 +1,79 @@
 package com.projedata.productionmanager.repository;
 
 import com.projedata.productionmanager.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductProjections {
 
+    // Cache de consultas: o Hibernate descarta o resultado a cada escrita na tabela
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Product> findByCode(String code);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCode(String code);
 
-    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.ingredients i LEFT JOIN FETCH i.rawMaterial")
+    @Query("SELECT p.code FROM Product p WHERE p.code IN :codes")
+    Set<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.ingredients i LEFT JOIN FETCH i.rawMaterial "
+            + "LEFT JOIN FETCH i.subAssembly")
     List<Product> findAllWithIngredients();
+
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.ingredients WHERE p.code IN :codes")
+    List<Product> findAllWithIngredientsByCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.ingredients WHERE p.id IN :ids")
+    List<Product> findAllWithIngredientsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.projedata.productionmanager.repository.SubAssemblyEdge(i.product.id, i.subAssembly.id) "
+            + "FROM ProductIngredient i WHERE i.subAssembly IS NOT NULL")
+    List<SubAssemblyEdge> findSubAssemblyEdges();
+
+    @Query("SELECT DISTINCT i.product.code FROM ProductIngredient i WHERE i.subAssembly.id = :id "
+            + "ORDER BY i.product.code")
+    List<String> findCodesUsingSubAssembly(@Param("id") Long id);
+
+    @Query("SELECT new com.projedata.productionmanager.repository.ProductSummary(p.id, p.code, p.name, p.price) "
+            + "FROM Product p WHERE p.code = :code")
+    Optional<ProductSummary> findSummaryByCode(@Param("code") String code);
+
+    @Query("""
+            SELECT new com.projedata.productionmanager.repository.ProductIngredientRow(
+                i.product.id, i.id, m.id, m.code, m.name, s.id, s.code, s.name, i.quantityRequired)
+            FROM ProductIngredient i LEFT JOIN i.rawMaterial m LEFT JOIN i.subAssembly s
+            WHERE i.product.id IN :productIds
+            ORDER BY i.id
+            """)
+    List<ProductIngredientRow> findIngredientRows(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Catálogo inteiro como linhas planas (uma por ingrediente), em ordem de produto, para exportação.
+     * Precisa ser consumido dentro de uma transação; o fetch size limita as linhas trazidas por ida ao banco.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.projedata.productionmanager.repository.ProductExportRow(
+                p.id, p.code, p.name, p.price, m.code, s.code, i.quantityRequired)
+            FROM Product p LEFT JOIN p.ingredients i LEFT JOIN i.rawMaterial m LEFT JOIN i.subAssembly s
+            ORDER BY p.id, i.id
+            """)
+    Stream<ProductExportRow> streamExportRows();
 }
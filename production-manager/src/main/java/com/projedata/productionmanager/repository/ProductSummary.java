@@ -0,0 +1,11 @@
+package com.projedata.productionmanager.repository;
+
+import java.math.BigDecimal;
+
+/** Colunas escalares de um produto, lidas por expressão construtora sem carregar a entidade. */
+public record ProductSummary(
+        Long id,
+        String code,
+        String name,
+        BigDecimal price
+) {}
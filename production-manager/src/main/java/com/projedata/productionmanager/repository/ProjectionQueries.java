@@ -0,0 +1,39 @@
+package com.projedata.productionmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Executa uma {@link Specification} com {@code SELECT new} sobre as colunas indicadas, para que
+ * listagens devolvam records sem passar entidades pelo contexto de persistência.
+ */
+final class ProjectionQueries {
+
+    private ProjectionQueries() {
+    }
+
+    static <T, R> List<R> select(EntityManager entityManager, Class<T> domainType, Class<R> projection,
+                                 Specification<T> spec, Sort sort, int limit, String... attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(projection);
+        Root<T> root = query.from(domainType);
+        Selection<?>[] columns = Arrays.stream(attributes).map(root::get).toArray(Selection[]::new);
+        query.select(cb.construct(projection, columns));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
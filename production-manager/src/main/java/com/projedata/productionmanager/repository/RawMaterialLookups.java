@@ -0,0 +1,21 @@
+package com.projedata.productionmanager.repository;
+
+import com.projedata.productionmanager.entity.RawMaterial;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RawMaterialLookups {
+
+    /**
+     * Como {@code findAllById}, mas consultando antes o contexto de persistência e o cache de segundo nível;
+     * só os ids ausentes vão ao banco, num único {@code IN}. Ids inexistentes são ignorados.
+     */
+    List<RawMaterial> findAllByIdCached(Collection<Long> ids);
+
+    /**
+     * Incrementa a versão da matéria-prima no flush mesmo sem alteração de colunas, para que baixas de
+     * estoque concorrentes sobre a mesma linha conflitem no commit.
+     */
+    void forceVersionIncrement(RawMaterial rawMaterial);
+}
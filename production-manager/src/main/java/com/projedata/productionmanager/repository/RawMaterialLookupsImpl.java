@@ -0,0 +1,29 @@
+package com.projedata.productionmanager.repository;
+
+import com.projedata.productionmanager.entity.RawMaterial;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+@RequiredArgsConstructor
+class RawMaterialLookupsImpl implements RawMaterialLookups {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<RawMaterial> findAllByIdCached(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class).findMultiple(RawMaterial.class, List.copyOf(ids)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void forceVersionIncrement(RawMaterial rawMaterial) {
+        entityManager.lock(rawMaterial, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+}
@@ -0,0 +1,13 @@
+package com.projedata.productionmanager.repository;
+
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.entity.RawMaterial;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface RawMaterialProjections {
+
+    List<RawMaterialResponse> findResponses(Specification<RawMaterial> spec, Sort sort, int limit);
+}
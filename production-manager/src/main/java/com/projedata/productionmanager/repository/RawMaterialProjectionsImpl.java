@@ -0,0 +1,22 @@
+package com.projedata.productionmanager.repository;
+
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.entity.RawMaterial;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class RawMaterialProjectionsImpl implements RawMaterialProjections {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<RawMaterialResponse> findResponses(Specification<RawMaterial> spec, Sort sort, int limit) {
+        return ProjectionQueries.select(entityManager, RawMaterial.class, RawMaterialResponse.class,
+                spec, sort, limit, "id", "code", "name", "stockQuantity");
+    }
+}
@@ -1,15 +1,49 @@
 package com.projedata.productionmanager.repository;
 
+import com.projedata.productionmanager.dto.RawMaterialResponse;
 import com.projedata.productionmanager.entity.RawMaterial;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long> {
+public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long>, JpaSpecificationExecutor<RawMaterial>,
+        RawMaterialProjections, RawMaterialLookups {
 
+    // Cache de consultas: o Hibernate descarta o resultado a cada escrita na tabela
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<RawMaterial> findByCode(String code);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCode(String code);
+
+    List<RawMaterial> findByCodeIn(Collection<String> codes);
+
+    /**
+     * Trava a linha até o fim da transação. Deve ser a primeira leitura da matéria-prima na transação: uma
+     * entidade já gerenciada não é relida e manteria o estado anterior ao lock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RawMaterial r WHERE r.id = :id")
+    Optional<RawMaterial> findByIdForUpdate(@Param("id") Long id);
+
+    // Em ordem de id, para que importações concorrentes travem as linhas na mesma ordem
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RawMaterial r WHERE r.code IN :codes ORDER BY r.id")
+    List<RawMaterial> findByCodeInForUpdate(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT new com.projedata.productionmanager.dto.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity) "
+            + "FROM RawMaterial r WHERE r.code = :code")
+    Optional<RawMaterialResponse> findResponseByCode(@Param("code") String code);
 }
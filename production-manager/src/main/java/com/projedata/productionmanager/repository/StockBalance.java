@@ -0,0 +1,8 @@
+package com.projedata.productionmanager.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Estoque atual de uma matéria-prima: snapshot somado aos lançamentos ainda não compactados, lidos juntos.
+ */
+public record StockBalance(Long rawMaterialId, BigDecimal stockQuantity) {}
@@ -0,0 +1,34 @@
+package com.projedata.productionmanager.repository;
+
+import com.projedata.productionmanager.entity.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Um único comando: sob READ COMMITTED, snapshot e pendentes lidos em consultas separadas podem ficar de
+    // lados diferentes de uma compactação e perder o delta compactado
+    @Query("SELECT new com.projedata.productionmanager.repository.StockBalance(r.id, r.stockQuantity + COALESCE("
+            + "(SELECT SUM(m.delta) FROM StockMovement m WHERE m.rawMaterial = r AND m.compacted = false), 0)) "
+            + "FROM RawMaterial r WHERE r.id IN :ids")
+    List<StockBalance> findBalances(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT m.rawMaterial.id FROM StockMovement m WHERE m.compacted = false")
+    List<Long> findPendingRawMaterialIds();
+
+    List<StockMovement> findByRawMaterialIdInAndCompactedFalse(Collection<Long> rawMaterialIds);
+
+    List<StockMovement> findByRawMaterialIdOrderByIdDesc(Long rawMaterialId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE StockMovement m SET m.compacted = true WHERE m.id IN :ids")
+    int markCompacted(@Param("ids") Collection<Long> ids);
+}
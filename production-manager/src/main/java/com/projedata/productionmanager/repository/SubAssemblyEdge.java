@@ -0,0 +1,7 @@
+package com.projedata.productionmanager.repository;
+
+/** Aresta da composição multinível: {@code productId} usa {@code subAssemblyId} como ingrediente. */
+public record SubAssemblyEdge(
+        Long productId,
+        Long subAssemblyId
+) {}
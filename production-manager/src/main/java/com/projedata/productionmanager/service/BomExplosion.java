@@ -0,0 +1,212 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Explosão das composições multinível: cada produto que usa subconjuntos vira um vetor achatado de matérias-primas
+ * por unidade, que é o que os solvers e a baixa de estoque enxergam. Os vetores são calculados em ordem topológica
+ * (subconjuntos antes de quem os usa), cada um uma única vez por explosão, então um subconjunto compartilhado por
+ * vários níveis não multiplica o trabalho. Na recarga do catálogo, o vetor de um produto é reaproveitado da
+ * explosão anterior se a composição direta dele não mudou e nenhum de seus subconjuntos foi recalculado.
+ *
+ * <p>Só entram na explosão produtos com subconjuntos e os subconjuntos que eles usam; catálogos sem composições
+ * multinível não pagam nada. Produtos num ciclo ou com subconjunto ausente ficam sem vetor e são explodidos sem
+ * ingredientes, o que os tira do cálculo; a gravação recusa ciclos, isto só cobre escritas concorrentes.
+ */
+public final class BomExplosion {
+
+    private static final BomExplosion EMPTY = new BomExplosion(Map.of(), Set.of(), Set.of(), 0);
+
+    private record Line(Long rawMaterialId, Long subAssemblyId, BigDecimal quantity) {}
+
+    private record Entry(List<Line> composition, Map<Long, BigDecimal> requirements) {}
+
+    private final Map<Long, Entry> entries;
+    private final Set<Long> composites;
+    private final Set<Long> unresolved;
+    private final int reused;
+
+    private BomExplosion(Map<Long, Entry> entries, Set<Long> composites, Set<Long> unresolved, int reused) {
+        this.entries = entries;
+        this.composites = composites;
+        this.unresolved = unresolved;
+        this.reused = reused;
+    }
+
+    /**
+     * @param previous explosão do snapshot anterior, cujos vetores ainda válidos são reaproveitados; pode ser nula
+     */
+    public static BomExplosion of(Collection<Product> products, BomExplosion previous) {
+        Map<Long, Product> byId = new HashMap<>();
+        Map<Long, List<Long>> parents = new HashMap<>();
+        Map<Long, Integer> pending = new HashMap<>();
+        for (Product product : products) {
+            byId.put(product.getId(), product);
+            Set<Long> subAssemblies = subAssemblies(product);
+            if (!subAssemblies.isEmpty()) {
+                pending.put(product.getId(), subAssemblies.size());
+                for (Long subAssembly : subAssemblies) {
+                    parents.computeIfAbsent(subAssembly, id -> new ArrayList<>()).add(product.getId());
+                }
+            }
+        }
+        if (pending.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Kahn: começa pelos subconjuntos sem subconjuntos; um pai entra na fila quando todos os seus foram resolvidos
+        ArrayDeque<Long> ready = new ArrayDeque<>();
+        for (Long id : parents.keySet()) {
+            if (byId.containsKey(id) && !pending.containsKey(id)) {
+                ready.add(id);
+            }
+        }
+        Map<Long, Entry> entries = new HashMap<>();
+        Set<Long> recomputed = new HashSet<>();
+        int reused = 0;
+        while (!ready.isEmpty()) {
+            Long id = ready.poll();
+            Product product = byId.get(id);
+            List<Line> composition = composition(product);
+            Entry old = previous == null ? null : previous.entries.get(id);
+            if (old != null && old.composition().equals(composition) && !dependsOn(composition, recomputed)) {
+                entries.put(id, old);
+                reused++;
+            } else {
+                entries.put(id, new Entry(composition, flatten(composition, entries)));
+                recomputed.add(id);
+            }
+            for (Long parent : parents.getOrDefault(id, List.of())) {
+                if (pending.merge(parent, -1, Integer::sum) == 0) {
+                    ready.add(parent);
+                }
+            }
+        }
+
+        Set<Long> unresolved = new HashSet<>(pending.keySet());
+        unresolved.removeAll(entries.keySet());
+        return new BomExplosion(Map.copyOf(entries), Set.copyOf(pending.keySet()), Set.copyOf(unresolved), reused);
+    }
+
+    private static Set<Long> subAssemblies(Product product) {
+        Set<Long> ids = null;
+        for (ProductIngredient ingredient : product.getIngredients()) {
+            if (ingredient.getSubAssembly() != null) {
+                if (ids == null) {
+                    ids = new LinkedHashSet<>();
+                }
+                ids.add(ingredient.getSubAssembly().getId());
+            }
+        }
+        return ids == null ? Set.of() : ids;
+    }
+
+    private static List<Line> composition(Product product) {
+        List<Line> lines = new ArrayList<>(product.getIngredients().size());
+        for (ProductIngredient ingredient : product.getIngredients()) {
+            lines.add(new Line(
+                    ingredient.getRawMaterial() == null ? null : ingredient.getRawMaterial().getId(),
+                    ingredient.getSubAssembly() == null ? null : ingredient.getSubAssembly().getId(),
+                    ingredient.getQuantityRequired()));
+        }
+        return lines;
+    }
+
+    private static boolean dependsOn(List<Line> composition, Set<Long> recomputed) {
+        for (Line line : composition) {
+            if (line.subAssemblyId() != null && recomputed.contains(line.subAssemblyId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Os subconjuntos já estão em entries: a ordem topológica garante que foram resolvidos antes
+    private static Map<Long, BigDecimal> flatten(List<Line> composition, Map<Long, Entry> entries) {
+        Map<Long, BigDecimal> requirements = new LinkedHashMap<>();
+        for (Line line : composition) {
+            if (line.rawMaterialId() != null) {
+                requirements.merge(line.rawMaterialId(), line.quantity(), BigDecimal::add);
+            } else {
+                entries.get(line.subAssemblyId()).requirements().forEach((material, quantity) ->
+                        requirements.merge(material, quantity.multiply(line.quantity()), BigDecimal::add));
+            }
+        }
+        requirements.replaceAll((material, quantity) -> normalize(quantity));
+        return Collections.unmodifiableMap(requirements);
+    }
+
+    // Produtos de quantidades acumulam casas decimais; zeros à direita só estreitariam o ponto fixo do kernel
+    private static BigDecimal normalize(BigDecimal quantity) {
+        BigDecimal stripped = quantity.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
+
+    /** Verdadeiro se o produto usa subconjuntos e precisa ser explodido. */
+    public boolean composite(Long productId) {
+        return composites.contains(productId);
+    }
+
+    /** Matérias-primas por unidade do produto, com os subconjuntos expandidos; vazio se não foi resolvido. */
+    public Map<Long, BigDecimal> requirements(Long productId) {
+        Entry entry = entries.get(productId);
+        return entry == null ? Map.of() : entry.requirements();
+    }
+
+    /**
+     * Cópia destacada do produto com os ingredientes achatados, apontando para as matérias-primas de
+     * {@code rawMaterials}; produtos sem subconjuntos são devolvidos como estão.
+     */
+    public Product explode(Product product, Map<Long, RawMaterial> rawMaterials) {
+        if (!composite(product.getId())) {
+            return product;
+        }
+        Product copy = Product.builder()
+                .id(product.getId())
+                .code(product.getCode())
+                .name(product.getName())
+                .price(product.getPrice())
+                .build();
+        requirements(product.getId()).forEach((material, quantity) -> {
+            RawMaterial rawMaterial = rawMaterials.get(material);
+            if (rawMaterial != null) {
+                copy.getIngredients().add(ProductIngredient.builder()
+                        .product(copy)
+                        .rawMaterial(rawMaterial)
+                        .quantityRequired(quantity)
+                        .build());
+            }
+        });
+        return copy;
+    }
+
+    /** Produtos num ciclo ou que dependem de um subconjunto ausente do catálogo. */
+    public Set<Long> unresolved() {
+        return unresolved;
+    }
+
+    /** Vetores reaproveitados da explosão anterior. */
+    public int reused() {
+        return reused;
+    }
+
+    /** Vetores calculados nesta explosão. */
+    public int computed() {
+        return entries.size() - reused;
+    }
+}
@@ -0,0 +1,66 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.SubAssemblyEdge;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Arestas produto -> subconjunto já gravadas, lidas numa só consulta, para recusar composições que fechariam um
+ * ciclo. Só produtos existentes podem fechar um ciclo: um produto novo ainda não é subconjunto de ninguém.
+ */
+final class BomGraph {
+
+    private final Map<Long, Set<Long>> subAssemblies = new HashMap<>();
+
+    private BomGraph() {
+    }
+
+    static BomGraph load(ProductRepository productRepository) {
+        BomGraph graph = new BomGraph();
+        for (SubAssemblyEdge edge : productRepository.findSubAssemblyEdges()) {
+            graph.subAssemblies.computeIfAbsent(edge.productId(), id -> new HashSet<>()).add(edge.subAssemblyId());
+        }
+        return graph;
+    }
+
+    /** Primeiro de {@code candidates} que é o próprio produto ou já o contém; {@code null} se nenhum. */
+    Long closesCycle(Long productId, Collection<Long> candidates) {
+        for (Long candidate : candidates) {
+            if (reaches(candidate, productId)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /** Substitui os subconjuntos diretos do produto, para validar os próximos da mesma transação. */
+    void replace(Long productId, Set<Long> direct) {
+        if (direct.isEmpty()) {
+            subAssemblies.remove(productId);
+        } else {
+            subAssemblies.put(productId, Set.copyOf(direct));
+        }
+    }
+
+    private boolean reaches(Long from, Long target) {
+        Set<Long> visited = new HashSet<>();
+        ArrayDeque<Long> stack = new ArrayDeque<>();
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Long id = stack.pop();
+            if (id.equals(target)) {
+                return true;
+            }
+            if (visited.add(id)) {
+                stack.addAll(subAssemblies.getOrDefault(id, Set.of()));
+            }
+        }
+        return false;
+    }
+}
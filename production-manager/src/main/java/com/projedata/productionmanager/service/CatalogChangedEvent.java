@@ -0,0 +1,20 @@
+package com.projedata.productionmanager.service;
+
+/**
+ * Publicado pelos serviços de escrita; os ouvintes reagem apenas após o commit da transação.
+ */
+public record CatalogChangedEvent(Type type, Long id) {
+
+    public enum Type {
+        PRODUCT,
+        RAW_MATERIAL
+    }
+
+    public static CatalogChangedEvent product(Long id) {
+        return new CatalogChangedEvent(Type.PRODUCT, id);
+    }
+
+    public static CatalogChangedEvent rawMaterial(Long id) {
+        return new CatalogChangedEvent(Type.RAW_MATERIAL, id);
+    }
+}
@@ -0,0 +1,115 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.IngredientImportRow;
+import com.projedata.productionmanager.dto.ProductImportRow;
+import com.projedata.productionmanager.repository.ProductExportRow;
+import com.projedata.productionmanager.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Exporta o catálogo de produtos direto para o stream da resposta, lendo as linhas de um cursor
+ * somente-leitura em vez de montar a lista inteira em memória. Os formatos são os mesmos aceitos
+ * por {@link CatalogImportService#importProducts}, então um arquivo exportado pode ser reimportado.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+            "productCode,productName,price,rawMaterialCode,quantityRequired,subAssemblyCode";
+
+    private final ProductRepository productRepository;
+    private final JsonMapper jsonMapper;
+
+    @Transactional(readOnly = true)
+    public void exportProducts(CatalogFormat format, OutputStream out) {
+        try (Stream<ProductExportRow> rows = productRepository.streamExportRows()) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (format == CatalogFormat.CSV) {
+                writeCsv(rows, writer);
+            } else {
+                writeNdjson(rows, writer);
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeCsv(Stream<ProductExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (ProductExportRow row : (Iterable<ProductExportRow>) rows::iterator) {
+            writer.write(csv(row.productCode()));
+            writer.write(',');
+            writer.write(csv(row.productName()));
+            writer.write(',');
+            writer.write(csv(row.price()));
+            writer.write(',');
+            writer.write(csv(row.rawMaterialCode()));
+            writer.write(',');
+            writer.write(csv(row.quantityRequired()));
+            writer.write(',');
+            writer.write(csv(row.subAssemblyCode()));
+            writer.write('\n');
+        }
+    }
+
+    // As linhas chegam ordenadas por produto: cada produto é acumulado só até o id mudar
+    private void writeNdjson(Stream<ProductExportRow> rows, Writer writer) throws IOException {
+        ProductExportRow current = null;
+        List<IngredientImportRow> ingredients = new ArrayList<>();
+        for (ProductExportRow row : (Iterable<ProductExportRow>) rows::iterator) {
+            if (current != null && !Objects.equals(current.productId(), row.productId())) {
+                writeProduct(current, ingredients, writer);
+                ingredients = new ArrayList<>();
+            }
+            current = row;
+            if (row.quantityRequired() != null) {
+                ingredients.add(new IngredientImportRow(row.rawMaterialCode(), row.subAssemblyCode(),
+                        row.quantityRequired()));
+            }
+        }
+        if (current != null) {
+            writeProduct(current, ingredients, writer);
+        }
+    }
+
+    private void writeProduct(ProductExportRow row, List<IngredientImportRow> ingredients, Writer writer)
+            throws IOException {
+        writer.write(jsonMapper.writeValueAsString(
+                new ProductImportRow(row.productCode(), row.productName(), row.price(), ingredients)));
+        writer.write('\n');
+    }
+
+    private static String csv(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,18 @@
+package com.projedata.productionmanager.service;
+
+import java.util.Locale;
+
+/** Formatos de arquivo aceitos na importação e gerados na exportação do catálogo. */
+public enum CatalogFormat {
+
+    CSV,
+    NDJSON;
+
+    public static CatalogFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown format: " + value);
+        }
+    }
+}
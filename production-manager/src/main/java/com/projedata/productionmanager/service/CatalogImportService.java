@@ -0,0 +1,445 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.config.CatalogProperties;
+import com.projedata.productionmanager.dto.ImportEvent;
+import com.projedata.productionmanager.dto.IngredientImportRow;
+import com.projedata.productionmanager.dto.ProductImportRow;
+import com.projedata.productionmanager.dto.RawMaterialImportRow;
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.entity.StockMovement;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Importa estoque de matérias-primas e composições de produtos a partir de CSV ou NDJSON.
+ * O corpo é lido em streaming e processado em blocos de {@code catalog.imports.chunk-size} linhas,
+ * cada bloco em sua própria transação (upsert por código, com inserts e updates em lote JDBC),
+ * então a memória usada não depende do tamanho do arquivo. Linhas inválidas são recusadas
+ * individualmente; se um bloco falhar no banco, todas as suas linhas são recusadas e a importação segue.
+ * O estoque de matérias-primas já existentes entra no livro de estoque como ajuste ({@link StockLedgerService}).
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+
+    private static final List<String> RAW_MATERIAL_COLUMNS = List.of("code", "stockQuantity");
+    private static final List<String> PRODUCT_COLUMNS =
+            List.of("productCode", "productName", "price", "rawMaterialCode", "quantityRequired");
+
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRepository productRepository;
+    private final StockLedgerService stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final CatalogProperties catalogProperties;
+
+    private record Line<T>(long number, T row) {}
+
+    private record ChunkResult(int created, int updated, List<ImportEvent> rejects) {}
+
+    /**
+     * CSV com cabeçalho {@code code,name,stockQuantity} ({@code name} opcional para códigos existentes)
+     * ou NDJSON com os mesmos campos.
+     */
+    public ImportEvent importRawMaterials(InputStream body, CatalogFormat format, Consumer<ImportEvent> sink) {
+        Progress progress = new Progress(sink);
+        try (ImportLineReader reader = new ImportLineReader(body)) {
+            Function<String, RawMaterialImportRow> decoder = format == CatalogFormat.CSV
+                    ? csvRawMaterial(reader.csvHeader(RAW_MATERIAL_COLUMNS))
+                    : text -> jsonMapper.readValue(text, RawMaterialImportRow.class);
+            List<Line<RawMaterialImportRow>> chunk = new ArrayList<>();
+            String text;
+            while ((text = reader.next()) != null) {
+                RawMaterialImportRow row = decode(reader.lineNumber(), text, decoder, progress);
+                if (row != null) {
+                    append(chunk, new Line<>(reader.lineNumber(), row), this::upsertRawMaterials, progress);
+                }
+            }
+            runChunk(chunk, this::upsertRawMaterials, progress);
+        }
+        return progress.finish();
+    }
+
+    /**
+     * CSV com uma linha por ingrediente ({@code productCode,productName,price,rawMaterialCode,quantityRequired}),
+     * com as linhas de um mesmo produto consecutivas; {@code rawMaterialCode} vazio indica produto sem ingredientes.
+     * A coluna opcional {@code subAssemblyCode} substitui {@code rawMaterialCode} quando o ingrediente é outro
+     * produto, que precisa já existir ou vir antes no arquivo. Em NDJSON, cada linha é um produto com a lista
+     * {@code ingredients} completa. A composição importada substitui a atual; um erro em qualquer linha de um
+     * produto, inclusive um subconjunto que fecharia um ciclo, recusa o produto inteiro.
+     */
+    public ImportEvent importProducts(InputStream body, CatalogFormat format, Consumer<ImportEvent> sink) {
+        Progress progress = new Progress(sink);
+        try (ImportLineReader reader = new ImportLineReader(body)) {
+            List<Line<ProductImportRow>> chunk = new ArrayList<>();
+            if (format == CatalogFormat.CSV) {
+                readProductCsv(reader, chunk, progress);
+            } else {
+                String text;
+                while ((text = reader.next()) != null) {
+                    ProductImportRow row = decode(reader.lineNumber(), text,
+                            t -> jsonMapper.readValue(t, ProductImportRow.class), progress);
+                    if (row != null) {
+                        append(chunk, new Line<>(reader.lineNumber(), row), this::upsertProducts, progress);
+                    }
+                }
+            }
+            runChunk(chunk, this::upsertProducts, progress);
+        }
+        return progress.finish();
+    }
+
+    private void readProductCsv(ImportLineReader reader, List<Line<ProductImportRow>> chunk, Progress progress) {
+        Map<String, Integer> header = reader.csvHeader(PRODUCT_COLUMNS);
+        PendingProduct pending = null;
+        String text;
+        while ((text = reader.next()) != null) {
+            long number = reader.lineNumber();
+            progress.lines++;
+            List<String> fields;
+            try {
+                fields = ImportLineReader.splitCsv(text);
+            } catch (IllegalArgumentException ex) {
+                progress.reject(number, ex.getMessage());
+                continue;
+            }
+            String code = field(fields, header, "productCode");
+            if (pending != null && !Objects.equals(pending.code, code)) {
+                emit(pending, chunk, progress);
+                pending = null;
+            }
+            if (pending == null) {
+                pending = new PendingProduct(number, code);
+            }
+            try {
+                pending.name = field(fields, header, "productName");
+                pending.price = decimal(fields, header, "price");
+                String rawMaterialCode = field(fields, header, "rawMaterialCode");
+                String subAssemblyCode = field(fields, header, "subAssemblyCode");
+                if (rawMaterialCode != null || subAssemblyCode != null) {
+                    pending.ingredients.add(new IngredientImportRow(rawMaterialCode, subAssemblyCode,
+                            decimal(fields, header, "quantityRequired")));
+                }
+            } catch (IllegalArgumentException ex) {
+                pending.fail(number, ex.getMessage());
+            }
+        }
+        if (pending != null) {
+            emit(pending, chunk, progress);
+        }
+    }
+
+    private void emit(PendingProduct pending, List<Line<ProductImportRow>> chunk, Progress progress) {
+        if (pending.error != null) {
+            progress.reject(pending.errorLine, pending.error);
+            return;
+        }
+        ProductImportRow row = new ProductImportRow(pending.code, pending.name, pending.price, pending.ingredients);
+        append(chunk, new Line<>(pending.firstLine, row), this::upsertProducts, progress);
+    }
+
+    private ChunkResult upsertRawMaterials(List<Line<RawMaterialImportRow>> chunk) {
+        Set<String> codes = chunk.stream().map(l -> l.row().code()).filter(Objects::nonNull).collect(toSet());
+        // Travadas e compactadas de uma vez: cada ajuste do bloco parte do snapshot, sem consultas por linha
+        Map<String, RawMaterial> existing = rawMaterialRepository.findByCodeInForUpdate(codes).stream()
+                .collect(toMap(RawMaterial::getCode, Function.identity()));
+        stockLedger.compact(existing.values());
+        int created = 0;
+        int updated = 0;
+        List<ImportEvent> rejects = new ArrayList<>();
+
+        for (Line<RawMaterialImportRow> line : chunk) {
+            RawMaterialImportRow row = line.row();
+            String error = Violations.describe("", validator.validate(row));
+            RawMaterial rawMaterial = error == null ? existing.get(row.code()) : null;
+            if (error == null && rawMaterial == null && isBlank(row.name())) {
+                error = "name: required for new raw material " + row.code();
+            }
+            if (error != null) {
+                rejects.add(ImportEvent.reject(line.number(), error));
+                continue;
+            }
+            if (rawMaterial == null) {
+                rawMaterial = rawMaterialRepository.save(RawMaterial.builder()
+                        .code(row.code())
+                        .name(row.name())
+                        .stockQuantity(row.stockQuantity())
+                        .build());
+                stockLedger.appendCompacted(rawMaterial, StockMovement.Reason.RECEIPT);
+                existing.put(row.code(), rawMaterial);
+                created++;
+            } else {
+                if (!isBlank(row.name())) {
+                    rawMaterial.setName(row.name());
+                }
+                // Códigos repetidos no mesmo bloco ajustam a partir do valor já lançado
+                stockLedger.adjust(rawMaterial, row.stockQuantity());
+                updated++;
+            }
+            eventPublisher.publishEvent(CatalogChangedEvent.rawMaterial(rawMaterial.getId()));
+        }
+        return new ChunkResult(created, updated, rejects);
+    }
+
+    private ChunkResult upsertProducts(List<Line<ProductImportRow>> chunk) {
+        Set<String> codes = chunk.stream().map(l -> l.row().code()).filter(Objects::nonNull).collect(toSet());
+        Set<String> rawMaterialCodes = chunk.stream()
+                .map(l -> l.row().ingredients())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(i -> i != null && i.rawMaterialCode() != null)
+                .map(IngredientImportRow::rawMaterialCode)
+                .collect(toSet());
+        Set<String> subAssemblyCodes = chunk.stream()
+                .map(l -> l.row().ingredients())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(i -> i != null && i.subAssemblyCode() != null)
+                .map(IngredientImportRow::subAssemblyCode)
+                .collect(toSet());
+        Set<String> productCodes = new HashSet<>(codes);
+        productCodes.addAll(subAssemblyCodes);
+        // Subconjuntos entram no mesmo mapa: um produto criado no bloco já pode ser usado pelos seguintes
+        Map<String, Product> existing = productRepository.findAllWithIngredientsByCodeIn(productCodes).stream()
+                .collect(toMap(Product::getCode, Function.identity()));
+        BomGraph graph = subAssemblyCodes.isEmpty() ? null : BomGraph.load(productRepository);
+        Map<String, RawMaterial> rawMaterials = rawMaterialCodes.isEmpty() ? Map.of()
+                : rawMaterialRepository.findByCodeIn(rawMaterialCodes).stream()
+                        .collect(toMap(RawMaterial::getCode, Function.identity()));
+        int created = 0;
+        int updated = 0;
+        List<ImportEvent> rejects = new ArrayList<>();
+
+        for (Line<ProductImportRow> line : chunk) {
+            ProductImportRow row = line.row();
+            String error = Violations.describe("", validator.validate(row));
+            if (error == null) {
+                error = row.ingredients().stream()
+                        .map(ingredient -> ingredientError(ingredient, rawMaterials, existing))
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(null);
+            }
+            Product product = existing.get(row.code());
+            Set<Long> subAssemblies = error == null ? subAssemblyIds(row, existing) : Set.of();
+            if (error == null && product != null && product.getId() != null && !subAssemblies.isEmpty()) {
+                Long closing = graph.closesCycle(product.getId(), subAssemblies);
+                if (closing != null) {
+                    String code = row.ingredients().stream()
+                            .map(IngredientImportRow::subAssemblyCode)
+                            .filter(c -> c != null && existing.get(c).getId().equals(closing))
+                            .findFirst().orElseThrow();
+                    error = "Sub-assembly " + code + " would create a cycle: it is or contains " + row.code();
+                }
+            }
+            if (error != null) {
+                rejects.add(ImportEvent.reject(line.number(), error));
+                continue;
+            }
+
+            if (product == null) {
+                product = Product.builder().code(row.code()).build();
+                created++;
+            } else {
+                product.getIngredients().clear();
+                updated++;
+            }
+            product.setName(row.name());
+            product.setPrice(row.price());
+            for (IngredientImportRow ingredient : row.ingredients()) {
+                product.getIngredients().add(ProductIngredient.builder()
+                        .product(product)
+                        .rawMaterial(ingredient.rawMaterialCode() == null ? null
+                                : rawMaterials.get(ingredient.rawMaterialCode()))
+                        .subAssembly(ingredient.subAssemblyCode() == null ? null
+                                : existing.get(ingredient.subAssemblyCode()))
+                        .quantityRequired(ingredient.quantityRequired())
+                        .build());
+            }
+            Product saved = productRepository.save(product);
+            existing.put(row.code(), saved);
+            if (graph != null) {
+                graph.replace(saved.getId(), subAssemblies);
+            }
+        }
+        if (created + updated > 0) {
+            eventPublisher.publishEvent(CatalogChangedEvent.product(null));
+        }
+        return new ChunkResult(created, updated, rejects);
+    }
+
+    private static String ingredientError(IngredientImportRow ingredient, Map<String, RawMaterial> rawMaterials,
+                                          Map<String, Product> products) {
+        if ((ingredient.rawMaterialCode() == null) == (ingredient.subAssemblyCode() == null)) {
+            return "Ingredient must reference exactly one of rawMaterialCode or subAssemblyCode";
+        }
+        if (ingredient.rawMaterialCode() != null && !rawMaterials.containsKey(ingredient.rawMaterialCode())) {
+            return "Raw material not found with code: " + ingredient.rawMaterialCode();
+        }
+        if (ingredient.subAssemblyCode() != null && !products.containsKey(ingredient.subAssemblyCode())) {
+            return "Sub-assembly product not found with code: " + ingredient.subAssemblyCode();
+        }
+        return null;
+    }
+
+    private static Set<Long> subAssemblyIds(ProductImportRow row, Map<String, Product> products) {
+        return row.ingredients().stream()
+                .map(IngredientImportRow::subAssemblyCode)
+                .filter(Objects::nonNull)
+                .map(code -> products.get(code).getId())
+                .collect(toSet());
+    }
+
+    private <T> T decode(long number, String text, Function<String, T> decoder, Progress progress) {
+        progress.lines++;
+        try {
+            return decoder.apply(text);
+        } catch (JacksonException ex) {
+            progress.reject(number, "Invalid JSON: " + ex.getOriginalMessage());
+        } catch (IllegalArgumentException ex) {
+            progress.reject(number, ex.getMessage());
+        }
+        return null;
+    }
+
+    private <T> void append(List<Line<T>> chunk, Line<T> line, Function<List<Line<T>>, ChunkResult> work,
+                            Progress progress) {
+        chunk.add(line);
+        if (chunk.size() >= catalogProperties.imports().chunkSize()) {
+            runChunk(chunk, work, progress);
+        }
+    }
+
+    private <T> void runChunk(List<Line<T>> chunk, Function<List<Line<T>>, ChunkResult> work, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> work.apply(chunk));
+            progress.created += result.created();
+            progress.updated += result.updated();
+            result.rejects().forEach(progress::reject);
+        } catch (DataAccessException ex) {
+            String message = "Chunk rolled back: " + ex.getMostSpecificCause().getMessage();
+            chunk.forEach(line -> progress.reject(line.number(), message));
+        }
+        chunk.clear();
+        progress.report();
+    }
+
+    private Function<String, RawMaterialImportRow> csvRawMaterial(Map<String, Integer> header) {
+        return text -> {
+            List<String> fields = ImportLineReader.splitCsv(text);
+            return new RawMaterialImportRow(field(fields, header, "code"), field(fields, header, "name"),
+                    decimal(fields, header, "stockQuantity"));
+        };
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> header, String column) {
+        Integer position = header.get(column);
+        if (position == null || position >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(List<String> fields, Map<String, Integer> header, String column) {
+        String value = field(fields, header, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + ": invalid number '" + value + "'");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /** Linhas CSV consecutivas de um mesmo produto, acumuladas até o código mudar. */
+    private static final class PendingProduct {
+
+        private final long firstLine;
+        private final String code;
+        private final List<IngredientImportRow> ingredients = new ArrayList<>();
+        private String name;
+        private BigDecimal price;
+        private long errorLine;
+        private String error;
+
+        private PendingProduct(long firstLine, String code) {
+            this.firstLine = firstLine;
+            this.code = code;
+        }
+
+        private void fail(long line, String message) {
+            if (error == null) {
+                errorLine = line;
+                error = message;
+            }
+        }
+    }
+
+    /** Contadores da importação em andamento, usados apenas pela thread da requisição. */
+    private static final class Progress {
+
+        private final Consumer<ImportEvent> sink;
+        private long lines;
+        private long created;
+        private long updated;
+        private long rejected;
+
+        private Progress(Consumer<ImportEvent> sink) {
+            this.sink = sink;
+        }
+
+        private void reject(long line, String error) {
+            reject(ImportEvent.reject(line, error));
+        }
+
+        private void reject(ImportEvent event) {
+            rejected++;
+            sink.accept(event);
+        }
+
+        private void report() {
+            sink.accept(ImportEvent.progress(lines, created, updated, rejected));
+        }
+
+        private ImportEvent finish() {
+            ImportEvent done = ImportEvent.done(lines, created, updated, rejected);
+            sink.accept(done);
+            return done;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fotografia imutável do catálogo em uma versão. As entidades são destacadas e compartilhadas
+ * entre requisições, portanto nunca devem ser alteradas; escritas sempre passam pelo repositório.
+ *
+ * @param products                produtos com a composição declarada, inclusive subconjuntos
+ * @param productsByPrice         produtos explodidos ({@link BomExplosion}), só com matérias-primas, por preço
+ * @param productIdsByRawMaterial índice reverso matéria-prima -> produtos que a utilizam, direta ou indiretamente
+ * @param compiled kernel compilado, ou {@code null} se as quantidades estouram o ponto fixo
+ * @param bom explosão das composições multinível, reaproveitada pela próxima recarga
+ */
+public record CatalogSnapshot(
+        long version,
+        List<Product> products,
+        List<RawMaterial> rawMaterials,
+        List<Product> productsByPrice,
+        Map<Long, Product> productsById,
+        Map<Long, RawMaterial> rawMaterialsById,
+        Map<Long, List<Long>> productIdsByRawMaterial,
+        CompiledCatalog compiled,
+        BomExplosion bom
+) {
+
+    public static CatalogSnapshot of(long version, List<Product> products, List<RawMaterial> rawMaterials) {
+        return of(version, products, rawMaterials, null);
+    }
+
+    /**
+     * @param previousBom explosão de um snapshot anterior, cujos vetores ainda válidos são reaproveitados
+     */
+    public static CatalogSnapshot of(long version, List<Product> products, List<RawMaterial> rawMaterials,
+                                     BomExplosion previousBom) {
+        Map<Long, RawMaterial> rawMaterialsById = rawMaterials.stream()
+                .collect(Collectors.toUnmodifiableMap(RawMaterial::getId, Function.identity()));
+        BomExplosion bom = BomExplosion.of(products, previousBom);
+
+        // Ordena produtos por preço decrescente (greedy: maior valor primeiro)
+        List<Product> byPrice = new ArrayList<>(products.size());
+        for (Product product : products) {
+            byPrice.add(bom.explode(product, rawMaterialsById));
+        }
+        byPrice.sort(Comparator.comparing(Product::getPrice).reversed());
+
+        CompiledCatalog compiled;
+        try {
+            compiled = CompiledCatalog.compile(byPrice);
+        } catch (ArithmeticException ex) {
+            compiled = null;
+        }
+
+        Map<Long, List<Long>> productIdsByRawMaterial = new HashMap<>();
+        for (Product product : byPrice) {
+            for (ProductIngredient ingredient : product.getIngredients()) {
+                productIdsByRawMaterial.computeIfAbsent(ingredient.getRawMaterial().getId(), id -> new ArrayList<>())
+                        .add(product.getId());
+            }
+        }
+        productIdsByRawMaterial.replaceAll((id, productIds) -> List.copyOf(productIds));
+
+        return new CatalogSnapshot(
+                version,
+                List.copyOf(products),
+                List.copyOf(rawMaterials),
+                List.copyOf(byPrice),
+                products.stream().collect(Collectors.toUnmodifiableMap(Product::getId, Function.identity())),
+                rawMaterialsById,
+                Map.copyOf(productIdsByRawMaterial),
+                compiled,
+                bom
+        );
+    }
+
+    public Optional<Product> product(Long id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    public Optional<RawMaterial> rawMaterial(Long id) {
+        return Optional.ofNullable(rawMaterialsById.get(id));
+    }
+
+    /**
+     * Aplica alterações de matérias-primas sem recarregar o catálogo: só os produtos que usam as
+     * matérias-primas alteradas são copiados, e o kernel compilado é derivado com o novo estoque. Os vetores
+     * explodidos não dependem do estoque; produtos com subconjuntos só são reexplodidos sobre as novas entidades.
+     *
+     * @param changedIds ids alterados; os ausentes de {@code fresh} foram excluídos
+     */
+    public CatalogSnapshot withRawMaterials(long newVersion, Set<Long> changedIds, Collection<RawMaterial> fresh) {
+        Map<Long, RawMaterial> freshById = fresh.stream()
+                .collect(Collectors.toMap(RawMaterial::getId, Function.identity()));
+
+        Map<Long, RawMaterial> materials = new LinkedHashMap<>();
+        rawMaterials.forEach(rm -> materials.put(rm.getId(), rm));
+        for (Long id : changedIds) {
+            RawMaterial rawMaterial = freshById.get(id);
+            if (rawMaterial == null) {
+                materials.remove(id);
+            } else {
+                materials.put(id, rawMaterial);
+            }
+        }
+
+        // Declarados e explodidos coincidem, exceto nos produtos com subconjuntos
+        Map<Long, Product> replacements = new HashMap<>();
+        Map<Long, Product> explodedReplacements = new HashMap<>();
+        Set<Long> composites = new HashSet<>();
+        for (Long id : changedIds) {
+            RawMaterial rawMaterial = freshById.get(id);
+            if (rawMaterial == null) {
+                continue;
+            }
+            for (Long productId : productIdsByRawMaterial.getOrDefault(id, List.of())) {
+                Product source = replacements.getOrDefault(productId, productsById.get(productId));
+                if (bom.composite(productId)) {
+                    composites.add(productId);
+                    if (uses(source, id)) {
+                        replacements.put(productId, copyWith(source, rawMaterial));
+                    }
+                } else {
+                    Product copy = copyWith(source, rawMaterial);
+                    replacements.put(productId, copy);
+                    explodedReplacements.put(productId, copy);
+                }
+            }
+        }
+        for (Long productId : composites) {
+            Product source = replacements.getOrDefault(productId, productsById.get(productId));
+            explodedReplacements.put(productId, bom.explode(source, materials));
+        }
+
+        List<Product> newProducts = replace(products, replacements);
+        List<Product> newByPrice = replace(productsByPrice, explodedReplacements);
+
+        CompiledCatalog newCompiled = null;
+        if (compiled != null) {
+            Map<Long, BigDecimal> stock = new HashMap<>();
+            freshById.values().forEach(rm -> stock.put(rm.getId(), rm.getStockQuantity()));
+            try {
+                newCompiled = compiled.withStock(stock, explodedReplacements);
+            } catch (ArithmeticException ex) {
+                // Novo estoque fora da escala atual: recompila a partir das entidades já atualizadas
+                return of(newVersion, newProducts, List.copyOf(materials.values()), bom);
+            }
+        }
+
+        Map<Long, Product> newById = new HashMap<>(productsById);
+        newById.putAll(replacements);
+        return new CatalogSnapshot(
+                newVersion,
+                newProducts,
+                List.copyOf(materials.values()),
+                newByPrice,
+                Map.copyOf(newById),
+                Map.copyOf(materials),
+                productIdsByRawMaterial,
+                newCompiled,
+                bom
+        );
+    }
+
+    /** Mesmo catálogo com outro kernel compilado, como o de um cenário what-if com estoque sobrescrito. */
+    public CatalogSnapshot withCompiled(CompiledCatalog catalog) {
+        return new CatalogSnapshot(version, products, rawMaterials, productsByPrice, productsById, rawMaterialsById,
+                productIdsByRawMaterial, catalog, bom);
+    }
+
+    private static List<Product> replace(List<Product> source, Map<Long, Product> replacements) {
+        if (replacements.isEmpty()) {
+            return source;
+        }
+        return source.stream().map(p -> replacements.getOrDefault(p.getId(), p)).toList();
+    }
+
+    private static boolean uses(Product product, Long rawMaterialId) {
+        for (ProductIngredient ingredient : product.getIngredients()) {
+            if (ingredient.getRawMaterial() != null && ingredient.getRawMaterial().getId().equals(rawMaterialId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Product copyWith(Product source, RawMaterial rawMaterial) {
+        Product copy = Product.builder()
+                .id(source.getId())
+                .code(source.getCode())
+                .name(source.getName())
+                .price(source.getPrice())
+                .build();
+        for (ProductIngredient ingredient : source.getIngredients()) {
+            boolean changed = ingredient.getRawMaterial() != null
+                    && ingredient.getRawMaterial().getId().equals(rawMaterial.getId());
+            copy.getIngredients().add(ProductIngredient.builder()
+                    .id(ingredient.getId())
+                    .product(copy)
+                    .rawMaterial(changed ? rawMaterial : ingredient.getRawMaterial())
+                    .subAssembly(ingredient.getSubAssembly())
+                    .quantityRequired(ingredient.getQuantityRequired())
+                    .build());
+        }
+        return copy;
+    }
+}
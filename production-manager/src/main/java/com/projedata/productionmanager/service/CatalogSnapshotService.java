@@ -0,0 +1,117 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantém o catálogo em memória como um {@link CatalogSnapshot} copy-on-write.
+ * A versão avança a cada escrita confirmada; a próxima leitura recarrega o catálogo uma única vez.
+ * Se desde o último snapshot só houve alterações de matérias-primas, apenas essas linhas são relidas
+ * e aplicadas sobre o snapshot atual, sem repetir a consulta do catálogo inteiro. Numa recarga completa,
+ * a explosão das composições multinível reaproveita os vetores do snapshot anterior que não mudaram.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Set<Long> pendingRawMaterials = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullReloadPending = new AtomicBoolean();
+    private volatile CatalogSnapshot snapshot;
+
+    public long version() {
+        return version.get();
+    }
+
+    /** Último snapshot carregado, sem disparar recarga; {@code null} antes da primeira leitura. */
+    public CatalogSnapshot peek() {
+        return snapshot;
+    }
+
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+        return reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // O registro da pendência precede o incremento, para que quem enxerga a versão nova também a enxergue
+        if (event.type() == CatalogChangedEvent.Type.RAW_MATERIAL && event.id() != null) {
+            pendingRawMaterials.add(event.id());
+        } else {
+            fullReloadPending.set(true);
+        }
+        version.incrementAndGet();
+    }
+
+    private CatalogSnapshot reload() {
+        reloadLock.lock();
+        try {
+            // A versão é lida antes da consulta: uma escrita concorrente invalida o resultado na próxima leitura
+            long loadingVersion = version.get();
+            CatalogSnapshot current = snapshot;
+            if (current != null && current.version() == loadingVersion) {
+                return current;
+            }
+
+            Set<Long> changed = new HashSet<>(pendingRawMaterials);
+            pendingRawMaterials.removeAll(changed);
+            boolean fullPending = fullReloadPending.getAndSet(false);
+            boolean full = fullPending || current == null;
+
+            CatalogSnapshot loaded;
+            try {
+                if (full) {
+                    List<Product> products = timer("query").record(() -> productRepository.findAllWithIngredients());
+                    List<RawMaterial> rawMaterials = timer("query").record(() -> rawMaterialRepository.findAll());
+                    BomExplosion previousBom = current == null ? null : current.bom();
+                    loaded = timer("compile").record(() ->
+                            CatalogSnapshot.of(loadingVersion, products, rawMaterials, previousBom));
+                    meterRegistry.counter("catalog.bom.vectors", "outcome", "reused").increment(loaded.bom().reused());
+                    meterRegistry.counter("catalog.bom.vectors", "outcome", "computed").increment(loaded.bom().computed());
+                } else {
+                    List<RawMaterial> fresh = timer("query").record(() -> rawMaterialRepository.findAllById(changed));
+                    loaded = timer("patch").record(() -> current.withRawMaterials(loadingVersion, changed, fresh));
+                }
+            } catch (RuntimeException e) {
+                // Devolve as pendências: sem elas a próxima leitura publicaria os dados antigos com a versão nova
+                pendingRawMaterials.addAll(changed);
+                if (fullPending) {
+                    fullReloadPending.set(true);
+                }
+                throw e;
+            }
+            snapshot = loaded;
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Timer timer(String phase) {
+        return meterRegistry.timer("catalog.snapshot.load", "phase", phase);
+    }
+}
@@ -0,0 +1,175 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.config.ProductionProperties;
+import com.projedata.productionmanager.config.SolverPool;
+import com.projedata.productionmanager.solver.BranchAndBoundSolver;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Execução no ForkJoinPool dos solvers: componentes independentes do catálogo ({@code production.decomposition.*})
+ * e cenários what-if.
+ */
+@Component
+@RequiredArgsConstructor
+public class ComponentExecutor {
+
+    private final ProductionProperties properties;
+    private final ForkJoinPool solverPool;
+
+    /**
+     * Bytes alocados até agora por thread, para a thread chamadora e as threads vivas do pool; {@code null} se a
+     * JVM não mede alocação por thread. Uma thread do pool encerrada entre duas leituras leva consigo o que alocou.
+     */
+    Map<Long, Long> allocatedBytesByThread() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>();
+        ids.add(Thread.currentThread().threadId());
+        if (solverPool instanceof SolverPool pool) {
+            pool.workers().forEach(worker -> ids.add(worker.threadId()));
+        }
+        long[] threadIds = ids.stream().mapToLong(Long::longValue).toArray();
+        long[] allocated = threads.getThreadAllocatedBytes(threadIds);
+        Map<Long, Long> byThread = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            // -1 para uma thread que terminou depois de listada
+            if (allocated[i] >= 0) {
+                byThread.put(threadIds[i], allocated[i]);
+            }
+        }
+        return byThread;
+    }
+
+    boolean decomposeGreedy(CompiledCatalog catalog) {
+        ProductionProperties.Decomposition decomposition = properties.decomposition();
+        return decomposition.enabled() && catalog.componentCount() > 1
+                && catalog.productCount() >= decomposition.minProducts();
+    }
+
+    /**
+     * Greedy por componente em paralelo. Componentes não compartilham produtos nem matérias-primas, então as
+     * tarefas escrevem em posições disjuntas de {@code units} e {@code remaining} e o resultado é idêntico ao
+     * greedy serial; o término de {@code invokeAll} publica as escritas para a thread chamadora.
+     */
+    void greedyByComponent(CompiledCatalog catalog, int[] units, long[] remaining) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int[] batch : batches(catalog)) {
+            tasks.add(() -> {
+                for (int component : batch) {
+                    catalog.greedyComponent(component, units, remaining);
+                }
+                return null;
+            });
+        }
+        invokeAll(tasks);
+    }
+
+    BranchAndBoundSolver.Solution solveOptimal(CompiledCatalog catalog, long budgetNanos) {
+        if (!properties.decomposition().enabled() || catalog.componentCount() <= 1) {
+            return new BranchAndBoundSolver(catalog, budgetNanos).solve();
+        }
+
+        // O ótimo do catálogo é a soma dos ótimos dos componentes; todos disputam o mesmo prazo
+        long deadline = System.nanoTime() + budgetNanos;
+        List<Callable<BranchAndBoundSolver.Solution>> tasks = new ArrayList<>();
+        for (int[] batch : batches(catalog)) {
+            tasks.add(() -> solveComponents(catalog, batch, deadline));
+        }
+        int[] units = new int[catalog.productCount()];
+        BigDecimal value = BigDecimal.ZERO;
+        BigDecimal upperBound = BigDecimal.ZERO;
+        boolean optimal = true;
+        int nodes = 0;
+        for (BranchAndBoundSolver.Solution solution : invokeAll(tasks)) {
+            for (int j = 0; j < units.length; j++) {
+                units[j] += solution.units()[j];
+            }
+            value = value.add(solution.value());
+            upperBound = upperBound.add(solution.upperBound());
+            optimal &= solution.optimal();
+            nodes += solution.nodes();
+        }
+        return new BranchAndBoundSolver.Solution(units, value, upperBound, optimal, nodes);
+    }
+
+    // Resolve os componentes do lote em sequência, devolvendo as unidades nos índices do catálogo inteiro
+    private BranchAndBoundSolver.Solution solveComponents(CompiledCatalog catalog, int[] batch, long deadline) {
+        int[] units = new int[catalog.productCount()];
+        BigDecimal value = BigDecimal.ZERO;
+        BigDecimal upperBound = BigDecimal.ZERO;
+        boolean optimal = true;
+        int nodes = 0;
+        for (int component : batch) {
+            int[] products = catalog.componentProducts(component);
+            BranchAndBoundSolver.Solution solution = new BranchAndBoundSolver(catalog.restrict(component),
+                    Math.max(0, deadline - System.nanoTime())).solve();
+            for (int r = 0; r < products.length; r++) {
+                units[products[r]] = solution.units()[r];
+            }
+            value = value.add(solution.value());
+            upperBound = upperBound.add(solution.upperBound());
+            optimal &= solution.optimal();
+            nodes += solution.nodes();
+        }
+        return new BranchAndBoundSolver.Solution(units, value, upperBound, optimal, nodes);
+    }
+
+    /**
+     * Agrupa componentes em lotes de tamanho parecido, poucos por thread do pool: catálogos com milhares de
+     * componentes minúsculos não viram milhares de tarefas.
+     */
+    private List<int[]> batches(CompiledCatalog catalog) {
+        int target = Math.max(1, catalog.productCount() / (solverPool.getParallelism() * 4));
+        List<int[]> batches = new ArrayList<>();
+        int[] batch = new int[catalog.componentCount()];
+        int size = 0;
+        int products = 0;
+        for (int c = 0; c < catalog.componentCount(); c++) {
+            batch[size++] = c;
+            products += catalog.componentSize(c);
+            if (products >= target) {
+                batches.add(Arrays.copyOf(batch, size));
+                size = 0;
+                products = 0;
+            }
+        }
+        if (size > 0) {
+            batches.add(Arrays.copyOf(batch, size));
+        }
+        return batches;
+    }
+
+    <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : solverPool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel solving interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
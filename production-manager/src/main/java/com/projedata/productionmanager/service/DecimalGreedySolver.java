@@ -0,0 +1,111 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductionSuggestionItem;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Greedy de referência em {@link BigDecimal} sobre as entidades, sem o kernel compilado. É o caminho do modo greedy
+ * quando as quantidades estouram o ponto fixo e serve de base de comparação para os demais solvers. Quando o snapshot
+ * tem kernel compilado, o estoque vem dele, o que inclui os estoques sobrescritos de um cenário.
+ */
+@Component
+public class DecimalGreedySolver implements ProductionSolver {
+
+    @Override
+    public String name() {
+        return "decimal";
+    }
+
+    @Override
+    public ProductionSuggestionResponse solve(CatalogSnapshot snapshot, long budgetMs) {
+        return solve(snapshot.productsByPrice(), snapshot.compiled());
+    }
+
+    ProductionSuggestionResponse solve(List<Product> products, CompiledCatalog stockSource) {
+        // Monta mapa mutável de estoque: idMatériaPrima -> quantidade disponível
+        Map<Long, BigDecimal> availableStock = buildStockMap(products);
+        if (stockSource != null) {
+            for (int i = 0; i < stockSource.materialCount(); i++) {
+                availableStock.put(stockSource.materialId(i), stockSource.stockQuantity(i));
+            }
+        }
+
+        List<ProductionSuggestionItem> items = new ArrayList<>();
+        BigDecimal grandTotal = BigDecimal.ZERO;
+
+        for (Product product : products) {
+            if (product.getIngredients().isEmpty()) {
+                continue;
+            }
+
+            int feasibleUnits = calculateFeasibleUnits(product, availableStock);
+
+            if (feasibleUnits <= 0) {
+                continue;
+            }
+
+            // Consome o estoque
+            consumeStock(product, feasibleUnits, availableStock);
+
+            BigDecimal totalValue = product.getPrice().multiply(BigDecimal.valueOf(feasibleUnits));
+            grandTotal = grandTotal.add(totalValue);
+
+            items.add(new ProductionSuggestionItem(
+                    product.getId(),
+                    product.getCode(),
+                    product.getName(),
+                    feasibleUnits,
+                    product.getPrice(),
+                    totalValue
+            ));
+        }
+
+        return new ProductionSuggestionResponse(items, grandTotal);
+    }
+
+    private Map<Long, BigDecimal> buildStockMap(List<Product> products) {
+        Map<Long, BigDecimal> stock = new HashMap<>();
+        for (Product product : products) {
+            for (ProductIngredient ingredient : product.getIngredients()) {
+                Long rawMaterialId = ingredient.getRawMaterial().getId();
+                stock.putIfAbsent(rawMaterialId, ingredient.getRawMaterial().getStockQuantity());
+            }
+        }
+        return stock;
+    }
+
+    private int calculateFeasibleUnits(Product product, Map<Long, BigDecimal> availableStock) {
+        int feasible = Integer.MAX_VALUE;
+        for (ProductIngredient ingredient : product.getIngredients()) {
+            Long rawMaterialId = ingredient.getRawMaterial().getId();
+            BigDecimal available = availableStock.getOrDefault(rawMaterialId, BigDecimal.ZERO);
+            BigDecimal required = ingredient.getQuantityRequired();
+
+            if (required.compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+
+            int possible = available.divideToIntegralValue(required).intValue();
+            feasible = Math.min(feasible, possible);
+        }
+        return feasible == Integer.MAX_VALUE ? 0 : feasible;
+    }
+
+    private void consumeStock(Product product, int units, Map<Long, BigDecimal> availableStock) {
+        for (ProductIngredient ingredient : product.getIngredients()) {
+            Long rawMaterialId = ingredient.getRawMaterial().getId();
+            BigDecimal consumed = ingredient.getQuantityRequired().multiply(BigDecimal.valueOf(units));
+            availableStock.merge(rawMaterialId, consumed, BigDecimal::subtract);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import com.projedata.productionmanager.solver.Presolve;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Greedy por preço decrescente sobre o kernel compilado, com presolve e componentes em paralelo. Guarda o último
+ * resultado do snapshot corrente do catálogo: se o catálogo seguinte só mudou de estoque, recalcula a partir do
+ * primeiro produto afetado. Cenários what-if e as cópias da comparação de solvers podem partir dele, mas nunca o
+ * substituem, para não despejar o cálculo que a sugestão padrão reaproveita.
+ */
+@Component
+@RequiredArgsConstructor
+public class GreedySolver implements ProductionSolver {
+
+    private final ComponentExecutor componentExecutor;
+    private final DecimalGreedySolver decimalSolver;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    // Último greedy calculado, reaproveitado quando o catálogo só mudou de estoque
+    private volatile Run lastRun;
+
+    record Run(CompiledCatalog catalog, int[] units, long[] remaining, ProductionSuggestionResponse response) {}
+
+    @Override
+    public String name() {
+        return "greedy";
+    }
+
+    @Override
+    public ProductionSuggestionResponse solve(CatalogSnapshot snapshot, long budgetMs) {
+        if (snapshot.compiled() == null) {
+            // Quantidades fora da faixa de ponto fixo: volta ao cálculo com BigDecimal
+            return decimalSolver.solve(snapshot.productsByPrice(), null);
+        }
+        return run(snapshot).response();
+    }
+
+    /** Greedy sobre o kernel compilado do snapshot, que não pode ser nulo. */
+    Run run(CatalogSnapshot snapshot) {
+        CompiledCatalog catalog = snapshot.compiled();
+        Run last = lastRun;
+        if (last != null && last.catalog() == catalog) {
+            return last;
+        }
+
+        Run run;
+        if (last != null && catalog.sharesStructureWith(last.catalog())) {
+            // Só o estoque mudou: reaproveita o prefixo não afetado do cálculo anterior. As contagens do presolve
+            // dependem do estoque e são refeitas, para que a resposta não dependa de o cache ter sido usado
+            long[] remaining = last.remaining().clone();
+            int[] units = catalog.greedyFrom(last.catalog(), last.units(), remaining);
+            run = new Run(catalog, units, remaining, Suggestions.of(catalog, units, null, Presolve.stats(catalog)));
+        } else {
+            run = fresh(catalog);
+        }
+        // Só a referência publicada: current() poderia recarregar o catálogo do banco dentro de um worker do pool
+        if (snapshot == catalogSnapshotService.peek()) {
+            lastRun = run;
+        }
+        return run;
+    }
+
+    /** Presolve e greedy sobre o catálogo reduzido, sem consultar nem atualizar o último resultado. */
+    Run fresh(CompiledCatalog catalog) {
+        Presolve presolve = Presolve.apply(catalog);
+        CompiledCatalog reduced = presolve.reduced();
+        long[] remaining = reduced.stock();
+        int[] units;
+        if (componentExecutor.decomposeGreedy(reduced)) {
+            units = new int[reduced.productCount()];
+            componentExecutor.greedyByComponent(reduced, units, remaining);
+        } else {
+            units = reduced.greedy(remaining);
+        }
+        int[] expanded = presolve.expandUnits(units);
+        return new Run(catalog, expanded, presolve.expandRemaining(remaining),
+                Suggestions.of(catalog, expanded, null, presolve.stats()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.projedata.productionmanager.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê o corpo da importação linha a linha por um canal NIO com buffer fixo, sem nunca manter o
+ * arquivo inteiro em memória. Linhas em branco são ignoradas, mas contam na numeração reportada.
+ * Para CSV, a primeira linha é o cabeçalho; campos podem vir entre aspas (com {@code ""} como escape),
+ * mas não podem conter quebras de linha.
+ */
+final class ImportLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    ImportLineReader(InputStream in) {
+        this.reader = new BufferedReader(
+                Channels.newReader(Channels.newChannel(in), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /** Próxima linha não vazia, ou {@code null} no fim do corpo. */
+    String next() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    return line;
+                }
+            }
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /** Lê o cabeçalho CSV e devolve a posição de cada coluna exigida. */
+    Map<String, Integer> csvHeader(List<String> required) {
+        String header = next();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty import body");
+        }
+        List<String> columns = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            positions.put(columns.get(i).trim(), i);
+        }
+        for (String column : required) {
+            if (!positions.containsKey(column)) {
+                throw new IllegalArgumentException("Missing CSV column: " + column);
+            }
+        }
+        return positions;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
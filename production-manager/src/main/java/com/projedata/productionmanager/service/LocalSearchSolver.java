@@ -0,0 +1,49 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductionImprovementStats;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import com.projedata.productionmanager.solver.LocalSearchImprover;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca local ({@link LocalSearchImprover}) a partir do greedy, já em cache na maioria das chamadas, até o fim do
+ * orçamento. A semente fixa torna o resultado reprodutível quando o prazo não é o fator limitante.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalSearchSolver implements ProductionSolver {
+
+    private final GreedySolver greedySolver;
+
+    @Override
+    public String name() {
+        return "local-search";
+    }
+
+    @Override
+    public boolean timeBudgeted() {
+        return true;
+    }
+
+    @Override
+    public ProductionSuggestionResponse solve(CatalogSnapshot snapshot, long budgetMs) {
+        CompiledCatalog catalog = snapshot.compiled();
+        if (catalog == null) {
+            throw new IllegalArgumentException("Quantities exceed the range supported by local search");
+        }
+        GreedySolver.Run greedy = greedySolver.run(snapshot);
+        LocalSearchImprover.Result result = new LocalSearchImprover(catalog, catalog.productCount())
+                .improve(greedy.units(), greedy.remaining(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+
+        BigDecimal greedyTotal = greedy.response().grandTotal();
+        ProductionSuggestionResponse best = result.accepted() == 0 ? greedy.response()
+                : Suggestions.of(catalog, result.units(), null, null).withPresolve(greedy.response().presolve());
+        return best.improved(new ProductionImprovementStats(greedyTotal, best.grandTotal().subtract(greedyTotal),
+                result.moves(), result.accepted()));
+    }
+}
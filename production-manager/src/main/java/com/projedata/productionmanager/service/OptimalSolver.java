@@ -0,0 +1,43 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.solver.BranchAndBoundSolver;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import com.projedata.productionmanager.solver.Presolve;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/** Branch-and-bound com presolve, um por componente independente, dentro do orçamento de tempo. */
+@Component
+@RequiredArgsConstructor
+public class OptimalSolver implements ProductionSolver {
+
+    private final ComponentExecutor componentExecutor;
+
+    @Override
+    public String name() {
+        return "optimal";
+    }
+
+    @Override
+    public boolean timeBudgeted() {
+        return true;
+    }
+
+    @Override
+    public ProductionSuggestionResponse solve(CatalogSnapshot snapshot, long budgetMs) {
+        if (snapshot.compiled() == null) {
+            throw new IllegalArgumentException("Quantities exceed the range supported by optimal mode");
+        }
+        return solve(snapshot.compiled(), budgetMs);
+    }
+
+    ProductionSuggestionResponse solve(CompiledCatalog catalog, long budgetMs) {
+        Presolve presolve = Presolve.apply(catalog);
+        BranchAndBoundSolver.Solution solution =
+                componentExecutor.solveOptimal(presolve.reduced(), TimeUnit.MILLISECONDS.toNanos(budgetMs));
+        return Suggestions.of(catalog, presolve.expandUnits(solution.units()), solution.gap(), presolve.stats());
+    }
+}
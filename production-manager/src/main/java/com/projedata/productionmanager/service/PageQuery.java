@@ -0,0 +1,38 @@
+package com.projedata.productionmanager.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parâmetros validados de uma listagem por keyset: cursor ({@code code} do último item visto),
+ * tamanho da página, filtro por prefixo e ordenação, sempre desempatada pelo código.
+ */
+public record PageQuery(String after, int limit, String prefix, String sortField, Sort.Direction direction) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public static PageQuery of(String after, int limit, String prefix, String sort, String direction,
+                               Set<String> sortableFields) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (!sortableFields.contains(sort)) {
+            throw new IllegalArgumentException("Unknown sort field: " + sort);
+        }
+        Sort.Direction parsed = Sort.Direction.fromOptionalString(direction.trim().toUpperCase(Locale.ROOT))
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sort direction: " + direction));
+        return new PageQuery(blankToNull(after), limit, blankToNull(prefix), sort, parsed);
+    }
+
+    public Sort sort() {
+        Sort byCode = Sort.by(direction, "code");
+        return "code".equals(sortField) ? byCode : Sort.by(direction, sortField).and(byCode);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -1,36 +1,94 @@
 package com.projedata.productionmanager.service;
 
+import com.projedata.productionmanager.config.CatalogProperties;
+import com.projedata.productionmanager.dto.PageResponse;
+import com.projedata.productionmanager.dto.ProductBatchItemResult;
+import com.projedata.productionmanager.dto.ProductBatchRequest;
+import com.projedata.productionmanager.dto.ProductBatchResponse;
 import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductIngredientResponse;
 import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.ProductResponse;
+import com.projedata.productionmanager.dto.RawMaterialSummary;
+import com.projedata.productionmanager.dto.SubAssemblySummary;
 import com.projedata.productionmanager.entity.Product;
 import com.projedata.productionmanager.entity.ProductIngredient;
 import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.repository.ProductIngredientRow;
 import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.ProductSummary;
 import com.projedata.productionmanager.repository.RawMaterialRepository;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.projedata.productionmanager.repository.CatalogSpecifications.after;
+import static com.projedata.productionmanager.repository.CatalogSpecifications.codeOrNameStartsWith;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    public static final Set<String> SORTABLE_FIELDS = Set.of("code", "name", "price");
+
     private final ProductRepository productRepository;
     private final RawMaterialRepository rawMaterialRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final CatalogProperties catalogProperties;
 
-    public List<Product> findAll() {
-        return productRepository.findAllWithIngredients();
+    /**
+     * Página ordenada e filtrada direto no banco, projetada em records: uma consulta para as colunas
+     * dos produtos e uma segunda por {@code IN} sobre os ids da página para os ingredientes.
+     */
+    public PageResponse<ProductResponse> findPage(PageQuery query) {
+        Specification<Product> spec = Specification.unrestricted();
+        if (query.prefix() != null) {
+            spec = spec.and(codeOrNameStartsWith(query.prefix()));
+        }
+        if (query.after() != null) {
+            spec = spec.and(after(query.sortField(), cursorValue(query), query.after(), query.direction()));
+        }
+        List<ProductSummary> rows = productRepository.findSummaries(spec, query.sort(), query.limit() + 1);
+        boolean hasMore = rows.size() > query.limit();
+        List<ProductSummary> page = hasMore ? rows.subList(0, query.limit()) : rows;
+
+        Map<Long, List<ProductIngredientResponse>> ingredients = page.isEmpty() ? Map.of()
+                : productRepository.findIngredientRows(page.stream().map(ProductSummary::id).toList()).stream()
+                        .collect(groupingBy(ProductIngredientRow::productId, mapping(ProductService::toResponse, toList())));
+        List<ProductResponse> items = page.stream()
+                .map(p -> new ProductResponse(p.id(), p.code(), p.name(), p.price(),
+                        ingredients.getOrDefault(p.id(), List.of())))
+                .toList();
+        return new PageResponse<>(items, hasMore ? page.getLast().code() : null);
     }
 
-    public Product findById(Long id) {
-        return productRepository.findById(id)
+    public ProductResponse findById(Long id) {
+        return catalogSnapshotService.current().product(id)
+                .map(ProductResponse::from)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
     }
 
     @Transactional
-    public Product create(ProductRequest request) {
+    public ProductResponse create(ProductRequest request) {
         if (productRepository.existsByCode(request.code())) {
             throw new IllegalArgumentException("Product already exists with code: " + request.code());
         }
@@ -39,13 +97,16 @@ public class ProductService {
                 .name(request.name())
                 .price(request.price())
                 .build();
-        addIngredients(product, request.ingredients());
-        return productRepository.save(product);
+        addIngredients(product, request.ingredients(), resolveRawMaterials(List.of(request)),
+                resolveSubAssemblies(List.of(request)));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(saved.getId()));
+        return ProductResponse.from(saved);
     }
 
     @Transactional
-    public Product update(Long id, ProductRequest request) {
-        Product product = findById(id);
+    public ProductResponse update(Long id, ProductRequest request) {
+        Product product = load(id);
         productRepository.findByCode(request.code()).ifPresent(existing -> {
             if (!existing.getId().equals(id)) {
                 throw new IllegalArgumentException("Code already in use: " + request.code());
@@ -54,24 +115,192 @@ public class ProductService {
         product.setCode(request.code());
         product.setName(request.name());
         product.setPrice(request.price());
+        Map<Long, Product> subAssemblies = resolveSubAssemblies(List.of(request));
+        rejectCycles(product, subAssemblies.values());
         product.getIngredients().clear();
-        addIngredients(product, request.ingredients());
-        return productRepository.save(product);
+        addIngredients(product, request.ingredients(), resolveRawMaterials(List.of(request)), subAssemblies);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(id));
+        return ProductResponse.from(saved);
+    }
+
+    /**
+     * Cria vários produtos numa única transação. Matérias-primas são resolvidas com um só
+     * {@code findAllById} e a unicidade dos códigos com uma só consulta; os ids vêm de sequence,
+     * o que permite ao Hibernate agrupar os inserts em lotes JDBC. Itens inválidos são reportados
+     * individualmente e não impedem a criação dos demais. Subconjuntos precisam ser produtos já gravados.
+     */
+    @Transactional
+    public ProductBatchResponse createBatch(ProductBatchRequest request) {
+        List<ProductRequest> items = request.products();
+        int maxProducts = catalogProperties.batch().maxProducts();
+        if (items.size() > maxProducts) {
+            throw new IllegalArgumentException("At most " + maxProducts + " products per batch");
+        }
+
+        Set<String> existingCodes = productRepository.findExistingCodes(items.stream()
+                .filter(Objects::nonNull).map(ProductRequest::code).filter(Objects::nonNull).toList());
+        Map<Long, RawMaterial> rawMaterials = resolveRawMaterials(items);
+        Map<Long, Product> subAssemblies = resolveSubAssemblies(items);
+
+        ProductBatchItemResult[] results = new ProductBatchItemResult[items.size()];
+        Map<Integer, Product> accepted = new LinkedHashMap<>();
+        Set<String> batchCodes = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            ProductRequest item = items.get(i);
+            String error = validateBatchItem(item, existingCodes, batchCodes, rawMaterials, subAssemblies);
+            if (error != null) {
+                results[i] = ProductBatchItemResult.failed(i, item == null ? null : item.code(), error);
+                continue;
+            }
+            Product product = Product.builder()
+                    .code(item.code())
+                    .name(item.name())
+                    .price(item.price())
+                    .build();
+            addIngredients(product, item.ingredients(), rawMaterials, subAssemblies);
+            accepted.put(i, product);
+        }
+
+        productRepository.saveAll(accepted.values());
+        accepted.forEach((i, product) -> results[i] = ProductBatchItemResult.created(i, product.getCode(), product.getId()));
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.product(null));
+        }
+        return new ProductBatchResponse(accepted.size(), items.size() - accepted.size(), List.of(results));
     }
 
     @Transactional
     public void delete(Long id) {
-        Product product = findById(id);
+        Product product = load(id);
+        List<String> users = productRepository.findCodesUsingSubAssembly(id);
+        if (!users.isEmpty()) {
+            throw new IllegalArgumentException("Product " + product.getCode() + " is a sub-assembly of: "
+                    + String.join(", ", users));
+        }
         productRepository.delete(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(id));
     }
 
-    private void addIngredients(Product product, List<ProductIngredientRequest> ingredientRequests) {
+    private Comparable<?> cursorValue(PageQuery query) {
+        if ("code".equals(query.sortField())) {
+            return query.after();
+        }
+        ProductSummary cursor = productRepository.findSummaryByCode(query.after())
+                .orElseThrow(() -> new IllegalArgumentException("Unknown cursor: " + query.after()));
+        return "name".equals(query.sortField()) ? cursor.name() : cursor.price();
+    }
+
+    private static ProductIngredientResponse toResponse(ProductIngredientRow row) {
+        return new ProductIngredientResponse(row.id(),
+                row.rawMaterialId() == null ? null
+                        : new RawMaterialSummary(row.rawMaterialId(), row.rawMaterialCode(), row.rawMaterialName()),
+                row.subAssemblyId() == null ? null
+                        : new SubAssemblySummary(row.subAssemblyId(), row.subAssemblyCode(), row.subAssemblyName()),
+                row.quantityRequired());
+    }
+
+    // Escritas usam sempre a entidade gerenciada, nunca a do snapshot compartilhado
+    private Product load(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
+    }
+
+    private String validateBatchItem(ProductRequest item, Set<String> existingCodes, Set<String> batchCodes,
+                                     Map<Long, RawMaterial> rawMaterials, Map<Long, Product> subAssemblies) {
+        if (item == null) {
+            return "Product must not be null";
+        }
+        String violations = Violations.describe("", validator.validate(item));
+        if (violations != null) {
+            return violations;
+        }
+        for (int i = 0; i < item.ingredients().size(); i++) {
+            ProductIngredientRequest ingredient = item.ingredients().get(i);
+            if (ingredient == null) {
+                return "ingredients[" + i + "]: must not be null";
+            }
+            violations = Violations.describe("ingredients[" + i + "].", validator.validate(ingredient));
+            if (violations != null) {
+                return violations;
+            }
+            String error = ingredientError(ingredient, rawMaterials, subAssemblies);
+            if (error != null) {
+                return error;
+            }
+        }
+        if (existingCodes.contains(item.code())) {
+            return "Product already exists with code: " + item.code();
+        }
+        if (!batchCodes.add(item.code())) {
+            return "Duplicate code in batch: " + item.code();
+        }
+        return null;
+    }
+
+    // Uma única consulta para todas as matérias-primas referenciadas pelos pedidos
+    private Map<Long, RawMaterial> resolveRawMaterials(List<ProductRequest> requests) {
+        Set<Long> ids = requests.stream()
+                .filter(r -> r != null && r.ingredients() != null)
+                .flatMap(r -> r.ingredients().stream())
+                .filter(i -> i != null && i.rawMaterialId() != null)
+                .map(ProductIngredientRequest::rawMaterialId)
+                .collect(toSet());
+        return ids.isEmpty() ? Map.of() : rawMaterialRepository.findAllByIdCached(ids).stream()
+                .collect(toMap(RawMaterial::getId, Function.identity()));
+    }
+
+    // Uma única consulta para todos os subconjuntos referenciados pelos pedidos
+    private Map<Long, Product> resolveSubAssemblies(List<ProductRequest> requests) {
+        Set<Long> ids = requests.stream()
+                .filter(r -> r != null && r.ingredients() != null)
+                .flatMap(r -> r.ingredients().stream())
+                .filter(i -> i != null && i.subAssemblyId() != null)
+                .map(ProductIngredientRequest::subAssemblyId)
+                .collect(toSet());
+        return ids.isEmpty() ? Map.of() : productRepository.findAllById(ids).stream()
+                .collect(toMap(Product::getId, Function.identity()));
+    }
+
+    private void rejectCycles(Product product, Collection<Product> subAssemblies) {
+        if (subAssemblies.isEmpty()) {
+            return;
+        }
+        Long closing = BomGraph.load(productRepository)
+                .closesCycle(product.getId(), subAssemblies.stream().map(Product::getId).toList());
+        if (closing != null) {
+            String code = subAssemblies.stream().filter(s -> s.getId().equals(closing)).findFirst()
+                    .map(Product::getCode).orElseThrow();
+            throw new IllegalArgumentException("Sub-assembly " + code + " would create a cycle: it is or contains "
+                    + product.getCode());
+        }
+    }
+
+    private static String ingredientError(ProductIngredientRequest ingredient, Map<Long, RawMaterial> rawMaterials,
+                                          Map<Long, Product> subAssemblies) {
+        if ((ingredient.rawMaterialId() == null) == (ingredient.subAssemblyId() == null)) {
+            return "Ingredient must reference exactly one of rawMaterialId or subAssemblyId";
+        }
+        if (ingredient.rawMaterialId() != null && !rawMaterials.containsKey(ingredient.rawMaterialId())) {
+            return "Raw material not found with id: " + ingredient.rawMaterialId();
+        }
+        if (ingredient.subAssemblyId() != null && !subAssemblies.containsKey(ingredient.subAssemblyId())) {
+            return "Sub-assembly product not found with id: " + ingredient.subAssemblyId();
+        }
+        return null;
+    }
+
+    private void addIngredients(Product product, List<ProductIngredientRequest> ingredientRequests,
+                                Map<Long, RawMaterial> rawMaterials, Map<Long, Product> subAssemblies) {
         for (ProductIngredientRequest req : ingredientRequests) {
-            RawMaterial rawMaterial = rawMaterialRepository.findById(req.rawMaterialId())
-                    .orElseThrow(() -> new IllegalArgumentException("Raw material not found with id: " + req.rawMaterialId()));
+            String error = ingredientError(req, rawMaterials, subAssemblies);
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
             ProductIngredient ingredient = ProductIngredient.builder()
                     .product(product)
-                    .rawMaterial(rawMaterial)
+                    .rawMaterial(req.rawMaterialId() == null ? null : rawMaterials.get(req.rawMaterialId()))
+                    .subAssembly(req.subAssemblyId() == null ? null : subAssemblies.get(req.subAssemblyId()))
                     .quantityRequired(req.quantityRequired())
                     .build();
             product.getIngredients().add(ingredient);
@@ -1,101 +1,260 @@
 package com.projedata.productionmanager.service;
 
-import com.projedata.productionmanager.dto.ProductionSuggestionItem;
+import com.projedata.productionmanager.config.ProductionProperties;
+import com.projedata.productionmanager.dto.ProductionScenarioRequest;
+import com.projedata.productionmanager.dto.ProductionScenarioResult;
+import com.projedata.productionmanager.dto.ProductionScenariosRequest;
+import com.projedata.productionmanager.dto.ProductionScenariosResponse;
 import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
-import com.projedata.productionmanager.entity.Product;
-import com.projedata.productionmanager.entity.ProductIngredient;
-import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.dto.SolverComparisonEntry;
+import com.projedata.productionmanager.dto.SolverComparisonResponse;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class ProductionCalculatorService {
 
-    private final ProductRepository productRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductionProperties properties;
+    private final ProductionSolverRegistry solverRegistry;
+    private final ComponentExecutor componentExecutor;
+    private final MeterRegistry meterRegistry;
+
+    // Cálculos em andamento por solver, orçamento e versão do catálogo; a entrada sai ao terminar
+    private final Map<Flight, CompletableFuture<ProductionSuggestionResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private record Flight(ProductionSolver solver, Long budgetMs, long catalogVersion) {}
 
     public ProductionSuggestionResponse calculate() {
-        List<Product> products = productRepository.findAllWithIngredients();
+        return calculate(SolverMode.GREEDY, null);
+    }
 
-        // Ordena produtos por preço decrescente (greedy: maior valor primeiro)
-        products.sort(Comparator.comparing(Product::getPrice).reversed());
+    public ProductionSuggestionResponse calculate(SolverMode mode, Long budgetMs) {
+        return calculate(mode, budgetMs, null);
+    }
 
-        // Monta mapa mutável de estoque: idMatériaPrima -> quantidade disponível
-        Map<Long, BigDecimal> availableStock = buildStockMap(products);
+    /**
+     * @param improveMs prazo da busca local sobre o plano greedy ({@link LocalSearchSolver}); só no modo greedy,
+     *                  limitado por {@code production.optimal.max-budget-ms}
+     */
+    public ProductionSuggestionResponse calculate(SolverMode mode, Long budgetMs, Long improveMs) {
+        if (improveMs == null) {
+            return calculate(solverRegistry.forMode(mode), budgetMs);
+        }
+        if (mode != SolverMode.GREEDY) {
+            throw new IllegalArgumentException("improve is only supported in greedy mode");
+        }
+        return calculate(solverRegistry.get("local-search"), improveMs);
+    }
 
-        List<ProductionSuggestionItem> items = new ArrayList<>();
-        BigDecimal grandTotal = BigDecimal.ZERO;
+    /** Calcula com um solver escolhido pelo nome ({@code ?solver=}), ignorando o modo. */
+    public ProductionSuggestionResponse calculate(String solverName, Long budgetMs) {
+        return calculate(solverRegistry.get(solverName), budgetMs);
+    }
 
-        for (Product product : products) {
-            if (product.getIngredients().isEmpty()) {
-                continue;
+    /**
+     * Chamadas concorrentes com o mesmo solver e orçamento sobre a mesma versão do catálogo compartilham um único
+     * cálculo em andamento (single-flight): a primeira carrega o snapshot e resolve, as demais esperam o mesmo
+     * resultado. Cada chamada conta em {@code production.suggestion.calls} como {@code computed} ou {@code coalesced}.
+     */
+    private ProductionSuggestionResponse calculate(ProductionSolver solver, Long budgetMs) {
+        Long budget = solver.timeBudgeted() ? resolveBudget(budgetMs) : null;
+        Flight key = new Flight(solver, budget, catalogSnapshotService.version());
+        while (true) {
+            CompletableFuture<ProductionSuggestionResponse> flight = new CompletableFuture<>();
+            CompletableFuture<ProductionSuggestionResponse> shared = inFlight.putIfAbsent(key, flight);
+            if (shared == null) {
+                calls("computed", solver).increment();
+                return lead(key, flight);
+            }
+            calls("coalesced", solver).increment();
+            ProductionSuggestionResponse response = await(shared);
+            if (response != null) {
+                return response;
             }
+        }
+    }
 
-            int feasibleUnits = calculateFeasibleUnits(product, availableStock);
+    private ProductionSuggestionResponse lead(Flight key, CompletableFuture<ProductionSuggestionResponse> flight) {
+        try {
+            ProductionSuggestionResponse response = compute(key.solver(), key.budgetMs());
+            if (Thread.currentThread().isInterrupted()) {
+                // Job cancelado: o resultado pode ter sido truncado e não é repassado a quem espera
+                inFlight.remove(key, flight);
+                flight.cancel(false);
+            } else {
+                flight.complete(response);
+            }
+            return response;
+        } catch (RuntimeException ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
 
-            if (feasibleUnits <= 0) {
-                continue;
+    // null quando o cálculo compartilhado foi abandonado e a chamada deve tentar de novo
+    private ProductionSuggestionResponse await(CompletableFuture<ProductionSuggestionResponse> shared) {
+        try {
+            return shared.get();
+        } catch (CancellationException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared calculation", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
             }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
 
-            // Consome o estoque
-            consumeStock(product, feasibleUnits, availableStock);
+    private ProductionSuggestionResponse compute(ProductionSolver solver, Long budgetMs) {
+        CatalogSnapshot snapshot = phaseTimer("snapshot", solver).record(catalogSnapshotService::current);
+        return phaseTimer("solve", solver).record(() -> solver.solve(snapshot, budgetMs == null ? 0 : budgetMs));
+    }
 
-            BigDecimal totalValue = product.getPrice().multiply(BigDecimal.valueOf(feasibleUnits));
-            grandTotal = grandTotal.add(totalValue);
+    /**
+     * Avalia cenários what-if sobre um único snapshot: cada cenário deriva o kernel compilado com
+     * estoques sobrescritos (a estrutura CSR é compartilhada) e todos são resolvidos em paralelo
+     * pelo solver do modo.
+     */
+    public ProductionScenariosResponse calculateScenarios(ProductionScenariosRequest request) {
+        SolverMode mode = request.mode() == null ? SolverMode.GREEDY : SolverMode.from(request.mode());
+        ProductionSolver solver = solverRegistry.forMode(mode);
+        long budgetMs = solver.timeBudgeted() ? resolveBudget(request.budgetMs()) : 0;
+        int maxScenarios = properties.scenarios().maxScenarios();
+        if (request.scenarios().size() > maxScenarios) {
+            throw new IllegalArgumentException("At most " + maxScenarios + " scenarios are allowed per request");
+        }
 
-            items.add(new ProductionSuggestionItem(
-                    product.getId(),
-                    product.getCode(),
-                    product.getName(),
-                    feasibleUnits,
-                    product.getPrice(),
-                    totalValue
-            ));
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        CompiledCatalog base = snapshot.compiled();
+        if (base == null) {
+            throw new IllegalArgumentException("Quantities exceed the range supported by scenario evaluation");
+        }
+
+        List<Callable<ProductionSuggestionResponse>> tasks = new ArrayList<>();
+        tasks.add(() -> solver.solve(snapshot, budgetMs));
+        for (ProductionScenarioRequest scenario : request.scenarios()) {
+            CatalogSnapshot variant = snapshot.withCompiled(applyOverrides(snapshot, base, scenario.stockOverrides()));
+            tasks.add(() -> solver.solve(variant, budgetMs));
         }
 
-        return new ProductionSuggestionResponse(items, grandTotal);
+        List<ProductionSuggestionResponse> responses = componentExecutor.invokeAll(tasks);
+        ProductionSuggestionResponse baseline = responses.get(0);
+        List<ProductionScenarioResult> results = new ArrayList<>();
+        for (int i = 0; i < request.scenarios().size(); i++) {
+            ProductionSuggestionResponse response = responses.get(i + 1);
+            results.add(new ProductionScenarioResult(
+                    request.scenarios().get(i).name(),
+                    response,
+                    response.grandTotal().subtract(baseline.grandTotal())
+            ));
+        }
+        return new ProductionScenariosResponse(snapshot.version(), baseline, results);
     }
 
-    private Map<Long, BigDecimal> buildStockMap(List<Product> products) {
-        Map<Long, BigDecimal> stock = new HashMap<>();
-        for (Product product : products) {
-            for (ProductIngredient ingredient : product.getIngredients()) {
-                Long rawMaterialId = ingredient.getRawMaterial().getId();
-                stock.putIfAbsent(rawMaterialId, ingredient.getRawMaterial().getStockQuantity());
+    private CompiledCatalog applyOverrides(CatalogSnapshot snapshot, CompiledCatalog base, Map<Long, BigDecimal> overrides) {
+        for (Long rawMaterialId : overrides.keySet()) {
+            if (snapshot.rawMaterial(rawMaterialId).isEmpty()) {
+                throw new IllegalArgumentException("Raw material not found with id: " + rawMaterialId);
             }
         }
-        return stock;
+        try {
+            return base.withStock(overrides, Map.of());
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Stock override exceeds the precision or range of the catalog");
+        }
     }
 
-    private int calculateFeasibleUnits(Product product, Map<Long, BigDecimal> availableStock) {
-        int feasible = Integer.MAX_VALUE;
-        for (ProductIngredient ingredient : product.getIngredients()) {
-            Long rawMaterialId = ingredient.getRawMaterial().getId();
-            BigDecimal available = availableStock.getOrDefault(rawMaterialId, BigDecimal.ZERO);
-            BigDecimal required = ingredient.getQuantityRequired();
+    public List<String> solverNames() {
+        return solverRegistry.all().stream().map(ProductionSolver::name).toList();
+    }
 
-            if (required.compareTo(BigDecimal.ZERO) <= 0) {
-                continue;
+    /**
+     * Roda todos os solvers registrados, um de cada vez, sobre o mesmo snapshot. Cada um recebe uma cópia recém
+     * compilada, fora da medição, para que caches de cálculos anteriores (como o greedy incremental) não distorçam
+     * o tempo. Solvers que não suportam o catálogo aparecem com {@code error}.
+     */
+    public SolverComparisonResponse compareSolvers(Long budgetMs) {
+        long budget = resolveBudget(budgetMs);
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<SolverComparisonEntry> results = new ArrayList<>();
+        for (ProductionSolver solver : solverRegistry.all()) {
+            CatalogSnapshot copy = CatalogSnapshot.of(snapshot.version(), snapshot.products(), snapshot.rawMaterials(),
+                    snapshot.bom());
+            Map<Long, Long> allocatedBefore = componentExecutor.allocatedBytesByThread();
+            long start = System.nanoTime();
+            try {
+                ProductionSuggestionResponse response = solver.solve(copy, solver.timeBudgeted() ? budget : 0);
+                long elapsed = System.nanoTime() - start;
+                Map<Long, Long> allocatedAfter = componentExecutor.allocatedBytesByThread();
+                results.add(new SolverComparisonEntry(solver.name(), TimeUnit.NANOSECONDS.toMicros(elapsed),
+                        allocatedBetween(allocatedBefore, allocatedAfter), response.grandTotal(),
+                        response.optimalityGap(), null));
+            } catch (IllegalArgumentException ex) {
+                results.add(new SolverComparisonEntry(solver.name(),
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), null, null, null, ex.getMessage()));
             }
+        }
+        return new SolverComparisonResponse(snapshot.version(), budget, results);
+    }
 
-            int possible = available.divideToIntegralValue(required).intValue();
-            feasible = Math.min(feasible, possible);
+    // Soma por thread: uma thread do pool criada no intervalo conta desde zero
+    private static Long allocatedBetween(Map<Long, Long> before, Map<Long, Long> after) {
+        if (before == null || after == null) {
+            return null;
         }
-        return feasible == Integer.MAX_VALUE ? 0 : feasible;
+        long total = 0;
+        for (Map.Entry<Long, Long> thread : after.entrySet()) {
+            total += thread.getValue() - before.getOrDefault(thread.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private Counter calls(String outcome, ProductionSolver solver) {
+        return meterRegistry.counter("production.suggestion.calls", "outcome", outcome, "mode", solver.name());
+    }
+
+    private Timer phaseTimer(String phase, ProductionSolver solver) {
+        return meterRegistry.timer("production.suggestion.phase", "phase", phase, "mode", solver.name());
+    }
+
+    /**
+     * Orçamento com que o solver do modo vai rodar: o padrão quando ausente, limitado a
+     * {@code production.optimal.max-budget-ms}; {@code null} se o solver não usa orçamento.
+     */
+    public Long effectiveBudget(SolverMode mode, Long budgetMs) {
+        return solverRegistry.forMode(mode).timeBudgeted() ? resolveBudget(budgetMs) : null;
     }
 
-    private void consumeStock(Product product, int units, Map<Long, BigDecimal> availableStock) {
-        for (ProductIngredient ingredient : product.getIngredients()) {
-            Long rawMaterialId = ingredient.getRawMaterial().getId();
-            BigDecimal consumed = ingredient.getQuantityRequired().multiply(BigDecimal.valueOf(units));
-            availableStock.merge(rawMaterialId, consumed, BigDecimal::subtract);
+    private long resolveBudget(Long budgetMs) {
+        ProductionProperties.Optimal optimal = properties.optimal();
+        if (budgetMs == null) {
+            return optimal.defaultBudgetMs();
+        }
+        if (budgetMs <= 0) {
+            throw new IllegalArgumentException("budgetMs must be positive: " + budgetMs);
         }
+        return Math.min(budgetMs, optimal.maxBudgetMs());
     }
 }
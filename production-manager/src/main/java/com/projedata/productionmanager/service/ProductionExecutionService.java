@@ -0,0 +1,152 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.config.ProductionProperties;
+import com.projedata.productionmanager.dto.MaterialConsumption;
+import com.projedata.productionmanager.dto.ProductionExecutionRequest;
+import com.projedata.productionmanager.dto.ProductionExecutionResponse;
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.exception.InsufficientStockException;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Executa um plano de produção baixando o estoque de todas as matérias-primas envolvidas numa única transação.
+ * Cada baixa vira um lançamento {@code CONSUMPTION} no livro de estoque ({@link StockLedgerService}), já
+ * incorporado ao snapshot junto com os lançamentos pendentes da matéria-prima: o catálogo em memória e a sugestão
+ * materializada são invalidados no commit, sem esperar o {@link StockCompactor}. Não há lock de tabela nem de
+ * linha na leitura; o {@code UPDATE} do snapshot verifica o {@code @Version}, e um conflito com outra baixa, um
+ * ajuste ou a compactação desfaz a transação inteira. O plano é então reaplicado sobre o estoque relido, até
+ * {@code production.execution.max-attempts} vezes. Planos sobre matérias-primas disjuntas nunca se bloqueiam nem
+ * conflitam.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductionExecutionService {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final StockLedgerService stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ProductionExecutionResponse execute(ProductionExecutionRequest request) {
+        int maxAttempts = properties.execution().maxAttempts();
+        for (int attempt = 1; ; attempt++) {
+            int current = attempt;
+            try {
+                return transactionTemplate.execute(status -> apply(request.plan(), current));
+            } catch (ConcurrencyFailureException ex) {
+                // Versão desatualizada ou, com entradas pendentes sendo compactadas ao mesmo tempo, lock do banco
+                meterRegistry.counter("production.execution.conflicts").increment();
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private ProductionExecutionResponse apply(Map<Long, Integer> plan, int attempt) {
+        Map<Long, BigDecimal> required = requiredMaterials(plan);
+        Map<Long, RawMaterial> materials = rawMaterialRepository.findAllByIdCached(required.keySet()).stream()
+                .collect(toMap(RawMaterial::getId, Function.identity()));
+        Map<Long, BigDecimal> available = stockLedger.currentStock(materials.values());
+
+        List<String> shortages = new ArrayList<>();
+        required.forEach((id, quantity) -> {
+            BigDecimal stock = available.get(id);
+            if (stock.compareTo(quantity) < 0) {
+                shortages.add(materials.get(id).getCode() + " (required " + quantity.stripTrailingZeros().toPlainString()
+                        + ", available " + stock.stripTrailingZeros().toPlainString() + ")");
+            }
+        });
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock: " + String.join("; ", shortages));
+        }
+
+        stockLedger.compact(materials.values());
+        List<MaterialConsumption> consumed = new ArrayList<>(required.size());
+        required.forEach((id, quantity) -> {
+            RawMaterial material = materials.get(id);
+            stockLedger.consume(material, quantity);
+            consumed.add(new MaterialConsumption(id, material.getCode(), quantity, available.get(id).subtract(quantity)));
+            eventPublisher.publishEvent(CatalogChangedEvent.rawMaterial(id));
+        });
+        // Os comandos saem agora, para que o conflito de versão chegue já traduzido
+        rawMaterialRepository.flush();
+        return new ProductionExecutionResponse(consumed, attempt);
+    }
+
+    // Consumo total por matéria-prima, em ordem de id, com os subconjuntos explodidos
+    private Map<Long, BigDecimal> requiredMaterials(Map<Long, Integer> plan) {
+        List<Product> products = productRepository.findAllWithIngredientsByIdIn(plan.keySet());
+        if (products.size() < plan.size()) {
+            Set<Long> found = products.stream().map(Product::getId).collect(Collectors.toSet());
+            Long missing = plan.keySet().stream().filter(id -> !found.contains(id)).findFirst().orElseThrow();
+            throw new IllegalArgumentException("Product not found with id: " + missing);
+        }
+        BomExplosion bom = BomExplosion.of(withSubAssemblies(products), null);
+        Map<Long, BigDecimal> required = new TreeMap<>();
+        for (Product product : products) {
+            BigDecimal units = BigDecimal.valueOf(plan.get(product.getId()));
+            if (bom.composite(product.getId())) {
+                if (bom.unresolved().contains(product.getId())) {
+                    throw new IllegalArgumentException("Sub-assembly cycle in product: " + product.getCode());
+                }
+                bom.requirements(product.getId()).forEach((id, quantity) ->
+                        required.merge(id, quantity.multiply(units), BigDecimal::add));
+                continue;
+            }
+            for (ProductIngredient ingredient : product.getIngredients()) {
+                required.merge(ingredient.getRawMaterial().getId(), ingredient.getQuantityRequired().multiply(units),
+                        BigDecimal::add);
+            }
+        }
+        return required;
+    }
+
+    // Carrega os subconjuntos nível a nível: uma consulta por profundidade da composição
+    private List<Product> withSubAssemblies(List<Product> products) {
+        Map<Long, Product> loaded = new HashMap<>();
+        products.forEach(p -> loaded.put(p.getId(), p));
+        List<Product> level = products;
+        while (true) {
+            Set<Long> missing = new HashSet<>();
+            for (Product product : level) {
+                for (ProductIngredient ingredient : product.getIngredients()) {
+                    Product subAssembly = ingredient.getSubAssembly();
+                    if (subAssembly != null && !loaded.containsKey(subAssembly.getId())) {
+                        missing.add(subAssembly.getId());
+                    }
+                }
+            }
+            if (missing.isEmpty()) {
+                return List.copyOf(loaded.values());
+            }
+            level = productRepository.findAllWithIngredientsByIdIn(missing);
+            level.forEach(p -> loaded.put(p.getId(), p));
+        }
+    }
+}
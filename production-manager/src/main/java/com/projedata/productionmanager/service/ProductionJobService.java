@@ -0,0 +1,169 @@
+package com.projedata.productionmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projedata.productionmanager.config.ProductionProperties;
+import com.projedata.productionmanager.dto.ProductionJobRequest;
+import com.projedata.productionmanager.dto.ProductionJobResponse;
+import com.projedata.productionmanager.dto.ProductionJobResponse.Status;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cálculos de sugestão em segundo plano para {@code /api/production/jobs}. Os jobs rodam no executor limitado
+ * {@code productionJobExecutor}; com a fila cheia a submissão é recusada ({@link RejectedExecutionException}).
+ * <p>
+ * Pedidos idênticos (modo e orçamento efetivo, já limitado) submetidos sobre a mesma versão do catálogo enquanto
+ * um job equivalente ainda está na fila ou rodando recebem esse mesmo job. Jobs em andamento ficam fora do cache
+ * limitado por {@code production.jobs.max-retained} e nunca são descartados; ao terminar, com sucesso, falha ou
+ * cancelamento, passam a ele e continuam consultáveis por {@code production.jobs.result-ttl-ms}. O cancelamento é
+ * cooperativo: interrompe a thread, e o branch-and-bound encerra na próxima verificação de prazo.
+ */
+@Service
+public class ProductionJobService {
+
+    private final ProductionCalculatorService calculatorService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    // Só jobs encerrados; os em andamento ficam em active, limitado pelo executor
+    private final Cache<String, Job> jobs;
+    private final Map<String, Job> active = new ConcurrentHashMap<>();
+    private final Map<JobKey, Job> pending = new ConcurrentHashMap<>();
+
+    private record JobKey(SolverMode mode, Long budgetMs, long catalogVersion) {}
+
+    private static final class Job {
+
+        final String id = UUID.randomUUID().toString();
+        final JobKey key;
+        final Instant submittedAt = Instant.now();
+        final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+        volatile Future<?> future;
+        volatile Instant completedAt;
+        volatile ProductionSuggestionResponse result;
+        volatile String error;
+
+        Job(JobKey key) {
+            this.key = key;
+        }
+
+        ProductionJobResponse toResponse() {
+            Status current = status.get();
+            return new ProductionJobResponse(id, current, key.mode().value(), key.budgetMs(), key.catalogVersion(),
+                    submittedAt, completedAt, current == Status.DONE ? result : null,
+                    current == Status.FAILED ? error : null);
+        }
+    }
+
+    public ProductionJobService(ProductionCalculatorService calculatorService,
+                                CatalogSnapshotService catalogSnapshotService,
+                                ThreadPoolExecutor productionJobExecutor,
+                                ProductionProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.calculatorService = calculatorService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.executor = productionJobExecutor;
+        this.meterRegistry = meterRegistry;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(properties.jobs().maxRetained())
+                .expireAfterWrite(properties.jobs().resultTtlMs(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public ProductionJobResponse submit(ProductionJobRequest request) {
+        SolverMode mode = request == null || request.mode() == null ? SolverMode.GREEDY : SolverMode.from(request.mode());
+        // Pedidos que chegam ao mesmo orçamento depois do padrão e do limite compartilham o job
+        Long budgetMs = calculatorService.effectiveBudget(mode, request == null ? null : request.budgetMs());
+        JobKey key = new JobKey(mode, budgetMs, catalogSnapshotService.version());
+
+        Job[] created = new Job[1];
+        Job job = pending.computeIfAbsent(key, k -> {
+            Job fresh = new Job(k);
+            active.put(fresh.id, fresh);
+            try {
+                fresh.future = executor.submit(() -> run(fresh));
+            } catch (RejectedExecutionException ex) {
+                active.remove(fresh.id);
+                throw ex;
+            }
+            created[0] = fresh;
+            return fresh;
+        });
+        meterRegistry.counter("production.jobs.submitted", "outcome", created[0] != null ? "queued" : "deduplicated")
+                .increment();
+        return job.toResponse();
+    }
+
+    public ProductionJobResponse find(String id) {
+        return load(id).toResponse();
+    }
+
+    /**
+     * Cancela um job na fila ou em execução; um job já encerrado é devolvido como está.
+     */
+    public ProductionJobResponse cancel(String id) {
+        Job job = load(id);
+        if (job.status.compareAndSet(Status.QUEUED, Status.CANCELLED)
+                || job.status.compareAndSet(Status.RUNNING, Status.CANCELLED)) {
+            job.completedAt = Instant.now();
+            // Sem future, o job foi publicado e submit ainda não terminou: run() encontra CANCELLED e não calcula
+            Future<?> future = job.future;
+            if (future != null) {
+                future.cancel(true);
+                // Um job ainda na fila não deve continuar ocupando vaga dela
+                executor.purge();
+            }
+            complete(job);
+        }
+        return job.toResponse();
+    }
+
+    private void run(Job job) {
+        if (!job.status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            return;
+        }
+        try {
+            job.result = calculatorService.calculate(job.key.mode(), job.key.budgetMs());
+            job.completedAt = Instant.now();
+            job.status.compareAndSet(Status.RUNNING, Status.DONE);
+        } catch (RuntimeException ex) {
+            job.error = ex.getMessage();
+            job.completedAt = Instant.now();
+            job.status.compareAndSet(Status.RUNNING, Status.FAILED);
+        } finally {
+            complete(job);
+        }
+    }
+
+    // Libera a chave de deduplicação e passa o job ao cache, onde o TTL começa a contar
+    private void complete(Job job) {
+        pending.remove(job.key, job);
+        // Entra no cache antes de sair de active, para que uma consulta concorrente sempre o encontre
+        jobs.put(job.id, job);
+        active.remove(job.id, job);
+    }
+
+    private Job load(String id) {
+        Job job = active.get(id);
+        if (job == null) {
+            job = jobs.getIfPresent(id);
+        }
+        if (job == null) {
+            throw new IllegalArgumentException("Job not found with id: " + id);
+        }
+        return job;
+    }
+}
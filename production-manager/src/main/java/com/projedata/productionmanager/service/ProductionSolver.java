@@ -0,0 +1,27 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+
+/**
+ * Motor de cálculo da sugestão de produção. Cada bean é registrado em {@link ProductionSolverRegistry} pelo
+ * {@link #name()} e pode ser escolhido por configuração ({@code production.solvers.*}) ou pelo parâmetro
+ * {@code solver} da requisição. Implementações precisam ser thread-safe: o mesmo bean atende requisições
+ * concorrentes sobre snapshots diferentes.
+ */
+public interface ProductionSolver {
+
+    /** Nome único, em minúsculas, usado na configuração, na requisição e na tag {@code mode} das métricas. */
+    String name();
+
+    /** Se {@code true}, o solver recebe o orçamento de tempo já validado e limitado; senão recebe zero. */
+    default boolean timeBudgeted() {
+        return false;
+    }
+
+    /**
+     * Resolve a sugestão sobre o snapshot informado, sem alterá-lo.
+     *
+     * @throws IllegalArgumentException se o catálogo estiver fora do que o solver suporta
+     */
+    ProductionSuggestionResponse solve(CatalogSnapshot snapshot, long budgetMs);
+}
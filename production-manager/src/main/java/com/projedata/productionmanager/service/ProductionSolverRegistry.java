@@ -0,0 +1,60 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.config.ProductionProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Todos os {@link ProductionSolver} do contexto, por nome. Os modos {@code greedy} e {@code optimal} apontam para os
+ * solvers configurados em {@code production.solvers.greedy} e {@code production.solvers.optimal}, o que permite trocar
+ * o motor de um modo sem mudar os clientes; nomes repetidos ou configurados sem bean falham na inicialização.
+ */
+@Component
+public class ProductionSolverRegistry {
+
+    private final Map<String, ProductionSolver> solvers = new TreeMap<>();
+    private final ProductionSolver greedy;
+    private final ProductionSolver optimal;
+
+    public ProductionSolverRegistry(List<ProductionSolver> solvers, ProductionProperties properties) {
+        for (ProductionSolver solver : solvers) {
+            if (this.solvers.putIfAbsent(solver.name(), solver) != null) {
+                throw new IllegalStateException("Duplicate production solver name: " + solver.name());
+            }
+        }
+        this.greedy = configured(properties.solvers().greedy());
+        this.optimal = configured(properties.solvers().optimal());
+    }
+
+    private ProductionSolver configured(String name) {
+        ProductionSolver solver = solvers.get(name);
+        if (solver == null) {
+            throw new IllegalStateException("No production solver named '" + name + "'; available: " + solvers.keySet());
+        }
+        return solver;
+    }
+
+    public ProductionSolver get(String name) {
+        ProductionSolver solver = solvers.get(name.trim().toLowerCase(Locale.ROOT));
+        if (solver == null) {
+            throw new IllegalArgumentException("Unknown solver: " + name);
+        }
+        return solver;
+    }
+
+    public ProductionSolver forMode(SolverMode mode) {
+        return switch (mode) {
+            case GREEDY -> greedy;
+            case OPTIMAL -> optimal;
+        };
+    }
+
+    /** Solvers em ordem alfabética de nome. */
+    public List<ProductionSolver> all() {
+        return List.copyOf(solvers.values());
+    }
+}
@@ -1,31 +1,56 @@
 package com.projedata.productionmanager.service;
 
+import com.projedata.productionmanager.dto.PageResponse;
 import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
 import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.entity.StockMovement;
 import com.projedata.productionmanager.repository.RawMaterialRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
+
+import static com.projedata.productionmanager.repository.CatalogSpecifications.after;
+import static com.projedata.productionmanager.repository.CatalogSpecifications.codeOrNameStartsWith;
 
 @Service
 @RequiredArgsConstructor
 public class RawMaterialService {
 
+    public static final Set<String> SORTABLE_FIELDS = Set.of("code", "name", "stockQuantity");
+
     private final RawMaterialRepository repository;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockLedgerService stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<RawMaterial> findAll() {
-        return repository.findAll();
+    public PageResponse<RawMaterialResponse> findPage(PageQuery query) {
+        Specification<RawMaterial> spec = Specification.unrestricted();
+        if (query.prefix() != null) {
+            spec = spec.and(codeOrNameStartsWith(query.prefix()));
+        }
+        if (query.after() != null) {
+            spec = spec.and(after(query.sortField(), cursorValue(query), query.after(), query.direction()));
+        }
+        List<RawMaterialResponse> rows = repository.findResponses(spec, query.sort(), query.limit() + 1);
+        boolean hasMore = rows.size() > query.limit();
+        List<RawMaterialResponse> page = hasMore ? rows.subList(0, query.limit()) : rows;
+        return new PageResponse<>(List.copyOf(page), hasMore ? page.getLast().code() : null);
     }
 
-    public RawMaterial findById(Long id) {
-        return repository.findById(id)
+    public RawMaterialResponse findById(Long id) {
+        return catalogSnapshotService.current().rawMaterial(id)
+                .map(RawMaterialResponse::from)
                 .orElseThrow(() -> new IllegalArgumentException("Raw material not found with id: " + id));
     }
 
     @Transactional
-    public RawMaterial create(RawMaterialRequest request) {
+    public RawMaterialResponse create(RawMaterialRequest request) {
         if (repository.existsByCode(request.code())) {
             throw new IllegalArgumentException("Raw material already exists with code: " + request.code());
         }
@@ -34,12 +59,17 @@ public class RawMaterialService {
                 .name(request.name())
                 .stockQuantity(request.stockQuantity())
                 .build();
-        return repository.save(rawMaterial);
+        RawMaterial saved = repository.save(rawMaterial);
+        stockLedger.appendCompacted(saved, StockMovement.Reason.RECEIPT);
+        eventPublisher.publishEvent(CatalogChangedEvent.rawMaterial(saved.getId()));
+        return RawMaterialResponse.from(saved);
     }
 
     @Transactional
-    public RawMaterial update(Long id, RawMaterialRequest request) {
-        RawMaterial rawMaterial = findById(id);
+    public RawMaterialResponse update(Long id, RawMaterialRequest request) {
+        // Lock antes de qualquer outra leitura: o ajuste parte do estoque confirmado por edições concorrentes
+        RawMaterial rawMaterial = repository.findByIdForUpdate(id)
+                .orElseThrow(() -> new IllegalArgumentException("Raw material not found with id: " + id));
         repository.findByCode(request.code()).ifPresent(existing -> {
             if (!existing.getId().equals(id)) {
                 throw new IllegalArgumentException("Code already in use: " + request.code());
@@ -47,13 +77,32 @@ public class RawMaterialService {
         });
         rawMaterial.setCode(request.code());
         rawMaterial.setName(request.name());
-        rawMaterial.setStockQuantity(request.stockQuantity());
-        return repository.save(rawMaterial);
+        stockLedger.compact(List.of(rawMaterial));
+        stockLedger.adjust(rawMaterial, request.stockQuantity());
+        RawMaterial saved = repository.save(rawMaterial);
+        eventPublisher.publishEvent(CatalogChangedEvent.rawMaterial(id));
+        return RawMaterialResponse.from(saved);
     }
 
     @Transactional
     public void delete(Long id) {
-        RawMaterial rawMaterial = findById(id);
+        RawMaterial rawMaterial = load(id);
         repository.delete(rawMaterial);
+        eventPublisher.publishEvent(CatalogChangedEvent.rawMaterial(id));
+    }
+
+    private Comparable<?> cursorValue(PageQuery query) {
+        if ("code".equals(query.sortField())) {
+            return query.after();
+        }
+        RawMaterialResponse cursor = repository.findResponseByCode(query.after())
+                .orElseThrow(() -> new IllegalArgumentException("Unknown cursor: " + query.after()));
+        return "name".equals(query.sortField()) ? cursor.name() : cursor.stockQuantity();
+    }
+
+    // Escritas usam sempre a entidade gerenciada, nunca a do snapshot compartilhado
+    private RawMaterial load(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Raw material not found with id: " + id));
     }
 }
@@ -0,0 +1,21 @@
+package com.projedata.productionmanager.service;
+
+import java.util.Locale;
+
+public enum SolverMode {
+
+    GREEDY,
+    OPTIMAL;
+
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static SolverMode from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown solver mode: " + value);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.config.StockLedgerProperties;
+import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import com.projedata.productionmanager.repository.StockMovementRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incorpora os lançamentos pendentes de {@code stock_movements} ao snapshot de estoque das matérias-primas,
+ * uma matéria-prima por transação. Só os lançamentos lidos na rodada são marcados, pelo id: uma entrada
+ * confirmada durante a compactação fica para a rodada seguinte. A linha da matéria-prima fica travada durante
+ * a compactação, então saídas e ajustes do {@link StockLedgerService} esperam por ela em vez de conflitar; a
+ * baixa otimista de {@link ProductionExecutionService}, que compacta as próprias matérias-primas, ainda pode
+ * conflitar com o {@code UPDATE} do snapshot e é repetida por ela.
+ * <p>
+ * As matérias-primas a compactar chegam por {@link StockMovedEvent}; o banco só é varrido na primeira rodada,
+ * para recuperar pendências anteriores ao início da aplicação. Sem lançamentos novos a rodada não faz consultas.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockCompactor {
+
+    private final StockMovementRepository movementRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final StockLedgerService stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedgerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Long> pendingRawMaterials = ConcurrentHashMap.newKeySet();
+    private boolean scanned;
+
+    @TransactionalEventListener
+    public void onStockMoved(StockMovedEvent event) {
+        pendingRawMaterials.add(event.rawMaterialId());
+    }
+
+    /**
+     * Uma rodada de compactação. Sincronizado para que a execução agendada e chamadas diretas não disputem
+     * as mesmas linhas; devolve quantos lançamentos foram incorporados.
+     */
+    @Scheduled(fixedDelayString = "${stock.ledger.compaction-interval-ms:1000}")
+    public synchronized int compact() {
+        if (!scanned) {
+            pendingRawMaterials.addAll(movementRepository.findPendingRawMaterialIds());
+            scanned = true;
+        }
+        List<Long> batch = new ArrayList<>();
+        for (Iterator<Long> it = pendingRawMaterials.iterator();
+             it.hasNext() && batch.size() < properties.compactionBatchSize(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+        int compacted = 0;
+        for (Long rawMaterialId : batch) {
+            try {
+                Integer count = transactionTemplate.execute(status -> compact(rawMaterialId));
+                compacted += count == null ? 0 : count;
+            } catch (ConcurrencyFailureException ex) {
+                meterRegistry.counter("stock.compaction.conflicts").increment();
+                pendingRawMaterials.add(rawMaterialId);
+            }
+        }
+        if (compacted > 0) {
+            meterRegistry.counter("stock.compaction.movements").increment(compacted);
+        }
+        return compacted;
+    }
+
+    private int compact(Long rawMaterialId) {
+        RawMaterial rawMaterial = rawMaterialRepository.findByIdForUpdate(rawMaterialId).orElse(null);
+        if (rawMaterial == null) {
+            return 0;
+        }
+        int count = stockLedger.compact(List.of(rawMaterial));
+        if (count > 0) {
+            eventPublisher.publishEvent(CatalogChangedEvent.rawMaterial(rawMaterialId));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,188 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.config.StockLedgerProperties;
+import com.projedata.productionmanager.dto.StockMovementRequest;
+import com.projedata.productionmanager.dto.StockMovementResponse;
+import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.entity.StockMovement;
+import com.projedata.productionmanager.exception.InsufficientStockException;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import com.projedata.productionmanager.repository.StockBalance;
+import com.projedata.productionmanager.repository.StockMovementRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Livro de movimentações de estoque. Entradas são só um {@code INSERT} em {@code stock_movements}: não tocam
+ * a linha da matéria-prima e não disputam com nenhuma outra escrita. Saídas precisam garantir que o estoque
+ * não fique negativo: travam a linha antes de ler o saldo, de modo que outra saída, um ajuste ou a compactação
+ * esperam o commit em vez de conflitar, e forçam o incremento de {@code @Version} para que a baixa otimista de
+ * {@link ProductionExecutionService} perceba a concorrência.
+ * <p>
+ * O estoque atual é o snapshot da matéria-prima mais os lançamentos pendentes, lidos num único comando; o
+ * {@link StockCompactor} incorpora os pendentes ao snapshot em segundo plano. Listagens e a calculadora leem só
+ * o snapshot, por isso ajustes de valor absoluto e a execução de planos compactam a matéria-prima na própria
+ * transação.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockLedgerService {
+
+    private final StockMovementRepository movementRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedgerProperties properties;
+
+    @Transactional
+    public StockMovementResponse record(Long rawMaterialId, StockMovementRequest request) {
+        validate(request);
+        RawMaterial rawMaterial = (request.delta().signum() < 0
+                ? rawMaterialRepository.findByIdForUpdate(rawMaterialId)
+                : rawMaterialRepository.findById(rawMaterialId))
+                .orElseThrow(() -> new IllegalArgumentException("Raw material not found with id: " + rawMaterialId));
+        BigDecimal available = currentStock(rawMaterial);
+        BigDecimal after = available.add(request.delta());
+        if (after.signum() < 0) {
+            throw new InsufficientStockException("Insufficient stock: " + rawMaterial.getCode() + " (required "
+                    + request.delta().negate().stripTrailingZeros().toPlainString() + ", available "
+                    + available.stripTrailingZeros().toPlainString() + ")");
+        }
+        StockMovement movement = append(rawMaterial, request.delta(), request.reason());
+        return StockMovementResponse.from(movement, after);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockMovementResponse> history(Long rawMaterialId, Integer limit) {
+        int size = limit == null ? properties.historyLimit() : limit;
+        if (size < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        if (!rawMaterialRepository.existsById(rawMaterialId)) {
+            throw new IllegalArgumentException("Raw material not found with id: " + rawMaterialId);
+        }
+        return movementRepository.findByRawMaterialIdOrderByIdDesc(rawMaterialId, Limit.of(size)).stream()
+                .map(m -> StockMovementResponse.from(m, null))
+                .toList();
+    }
+
+    /**
+     * Registra um lançamento na transação corrente. Deltas negativos forçam o incremento de versão da
+     * matéria-prima; quem chama já deve ter verificado o saldo com {@link #currentStock}.
+     */
+    StockMovement append(RawMaterial rawMaterial, BigDecimal delta, StockMovement.Reason reason) {
+        if (delta.signum() < 0) {
+            rawMaterialRepository.forceVersionIncrement(rawMaterial);
+        }
+        StockMovement movement = movementRepository.save(movement(rawMaterial, delta, reason, false));
+        eventPublisher.publishEvent(new StockMovedEvent(rawMaterial.getId()));
+        return movement;
+    }
+
+    /**
+     * Incorpora ao snapshot os lançamentos pendentes das matérias-primas, que devem ter sido lidas com lock
+     * ({@link RawMaterialRepository#findByIdForUpdate}, {@link RawMaterialRepository#findByCodeInForUpdate}) ou
+     * ter o snapshot alterado na mesma transação, para que o {@code UPDATE} verifique a versão.
+     * O saldo não muda, só passa do livro para o snapshot; devolve quantos lançamentos foram incorporados.
+     */
+    int compact(Collection<RawMaterial> rawMaterials) {
+        if (rawMaterials.isEmpty()) {
+            return 0;
+        }
+        Map<Long, RawMaterial> byId = rawMaterials.stream().collect(toMap(RawMaterial::getId, Function.identity()));
+        List<StockMovement> movements = movementRepository.findByRawMaterialIdInAndCompactedFalse(byId.keySet());
+        if (movements.isEmpty()) {
+            return 0;
+        }
+        for (StockMovement movement : movements) {
+            RawMaterial rawMaterial = byId.get(movement.getRawMaterial().getId());
+            rawMaterial.setStockQuantity(rawMaterial.getStockQuantity().add(movement.getDelta()));
+        }
+        movementRepository.markCompacted(movements.stream().map(StockMovement::getId).toList());
+        return movements.size();
+    }
+
+    /**
+     * Estoques informados como valor absoluto (edição, importação) viram um lançamento {@code ADJUSTMENT}, já
+     * compactado, com a diferença para o estoque atual. A matéria-prima deve estar travada e compactada por
+     * {@link #compact}: o snapshot passa a ser o valor informado assim que a transação confirma, e ajustes
+     * concorrentes esperam o lock e partem do valor do anterior, então o último a confirmar prevalece.
+     */
+    void adjust(RawMaterial rawMaterial, BigDecimal target) {
+        BigDecimal delta = target.subtract(rawMaterial.getStockQuantity());
+        if (delta.signum() != 0) {
+            rawMaterial.setStockQuantity(target);
+            movementRepository.save(movement(rawMaterial, delta, StockMovement.Reason.ADJUSTMENT, true));
+        }
+    }
+
+    /**
+     * Baixa de produção aplicada direto ao snapshot, com um lançamento {@code CONSUMPTION} já compactado. A
+     * matéria-prima deve ter sido compactada por {@link #compact} na mesma transação, e quem chama já deve ter
+     * verificado o saldo; sem lock, o {@code UPDATE} do snapshot falha no commit se outra escrita mudou a linha.
+     */
+    void consume(RawMaterial rawMaterial, BigDecimal quantity) {
+        rawMaterial.setStockQuantity(rawMaterial.getStockQuantity().subtract(quantity));
+        movementRepository.save(movement(rawMaterial, quantity.negate(), StockMovement.Reason.CONSUMPTION, true));
+    }
+
+    /**
+     * Registra no histórico um estoque que já entrou direto no snapshot (cadastro de uma matéria-prima nova).
+     */
+    void appendCompacted(RawMaterial rawMaterial, StockMovement.Reason reason) {
+        if (rawMaterial.getStockQuantity().signum() != 0) {
+            movementRepository.save(movement(rawMaterial, rawMaterial.getStockQuantity(), reason, true));
+        }
+    }
+
+    BigDecimal currentStock(RawMaterial rawMaterial) {
+        return currentStock(List.of(rawMaterial)).get(rawMaterial.getId());
+    }
+
+    // Uma consulta agregada para todas as matérias-primas, com snapshot e pendentes no mesmo comando
+    Map<Long, BigDecimal> currentStock(Collection<RawMaterial> rawMaterials) {
+        Map<Long, BigDecimal> stock = rawMaterials.stream()
+                .collect(toMap(RawMaterial::getId, RawMaterial::getStockQuantity));
+        if (!stock.isEmpty()) {
+            for (StockBalance balance : movementRepository.findBalances(stock.keySet())) {
+                stock.put(balance.rawMaterialId(), balance.stockQuantity());
+            }
+        }
+        return stock;
+    }
+
+    private StockMovement movement(RawMaterial rawMaterial, BigDecimal delta, StockMovement.Reason reason,
+                                   boolean compacted) {
+        return StockMovement.builder()
+                .rawMaterial(rawMaterial)
+                .delta(delta)
+                .reason(reason)
+                .createdAt(Instant.now())
+                .compacted(compacted)
+                .build();
+    }
+
+    private static void validate(StockMovementRequest request) {
+        int sign = request.delta().signum();
+        if (sign == 0) {
+            throw new IllegalArgumentException("delta must not be zero");
+        }
+        if (request.reason() == StockMovement.Reason.RECEIPT && sign < 0) {
+            throw new IllegalArgumentException("RECEIPT movements must have a positive delta");
+        }
+        if (request.reason() == StockMovement.Reason.CONSUMPTION && sign > 0) {
+            throw new IllegalArgumentException("CONSUMPTION movements must have a negative delta");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.projedata.productionmanager.service;
+
+/**
+ * Publicado a cada lançamento pendente no livro de estoque; o {@link StockCompactor} só o recebe após o commit.
+ */
+public record StockMovedEvent(Long rawMaterialId) {}
@@ -0,0 +1,130 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.config.ProductionProperties;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém a sugestão greedy padrão pré-calculada. Escritas confirmadas em produtos e matérias-primas (inclusive a
+ * compactação do livro de estoque) agendam um recálculo no {@link TaskScheduler} só depois de
+ * {@code production.materialization.debounce-ms} sem novas escritas, limitado a {@code max-delay-ms} desde a
+ * primeira pendente; uma rajada de escritas gera um único recálculo. O resultado é publicado numa referência
+ * volátil e {@link #current()} o devolve sem calcular nada, marcado como {@code stale} enquanto houver escrita
+ * posterior ao cálculo.
+ */
+@Service
+public class SuggestionMaterializer {
+
+    private final ProductionCalculatorService calculatorService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final TaskScheduler taskScheduler;
+    private final ProductionProperties.Materialization properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+    private ScheduledFuture<?> scheduled;
+    private long firstChangeNanos;
+    private long lastChangeNanos;
+    private volatile Materialized materialized;
+
+    /**
+     * @param catalogVersion versão lida antes do cálculo; o snapshot usado é pelo menos tão novo quanto ela
+     */
+    public record Materialized(long catalogVersion, ProductionSuggestionResponse suggestion) {}
+
+    public SuggestionMaterializer(ProductionCalculatorService calculatorService,
+                                  CatalogSnapshotService catalogSnapshotService,
+                                  TaskScheduler taskScheduler,
+                                  ProductionProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.calculatorService = calculatorService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties.materialization();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Sugestão materializada, com {@code stale} e {@code computedAt}. Só calcula na thread de quem chama antes
+     * da primeira materialização ou com a materialização desligada.
+     */
+    public Materialized current() {
+        Materialized current = materialized;
+        if (current == null || !properties.enabled()) {
+            return recompute();
+        }
+        if (current.catalogVersion() == catalogSnapshotService.version()) {
+            return current;
+        }
+        ProductionSuggestionResponse suggestion = current.suggestion();
+        return new Materialized(current.catalogVersion(), suggestion.materialized(true, suggestion.computedAt()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        requestRecompute();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        requestRecompute();
+    }
+
+    private void requestRecompute() {
+        if (!properties.enabled()) {
+            return;
+        }
+        synchronized (lock) {
+            lastChangeNanos = System.nanoTime();
+            if (scheduled == null) {
+                firstChangeNanos = lastChangeNanos;
+                scheduled = taskScheduler.schedule(this::fire, Instant.now().plusMillis(properties.debounceMs()));
+            }
+        }
+    }
+
+    private void fire() {
+        synchronized (lock) {
+            long due = Math.min(lastChangeNanos + TimeUnit.MILLISECONDS.toNanos(properties.debounceMs()),
+                    firstChangeNanos + TimeUnit.MILLISECONDS.toNanos(properties.maxDelayMs()));
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                scheduled = taskScheduler.schedule(this::fire, Instant.now().plusNanos(wait));
+                return;
+            }
+            // Escritas a partir daqui agendam um novo recálculo
+            scheduled = null;
+        }
+        try {
+            recompute();
+            meterRegistry.counter("production.suggestion.materializations", "outcome", "success").increment();
+        } catch (RuntimeException ex) {
+            // A sugestão anterior continua servida como stale até a próxima escrita agendar outro recálculo
+            meterRegistry.counter("production.suggestion.materializations", "outcome", "failure").increment();
+        }
+    }
+
+    private Materialized recompute() {
+        long version = catalogSnapshotService.version();
+        ProductionSuggestionResponse suggestion = calculatorService.calculate(SolverMode.GREEDY, null);
+        Materialized fresh = new Materialized(version, suggestion.materialized(false, Instant.now()));
+        if (properties.enabled()) {
+            synchronized (lock) {
+                // Um cálculo mais lento sobre uma versão anterior não sobrescreve um mais novo
+                if (materialized == null || materialized.catalogVersion() <= version) {
+                    materialized = fresh;
+                }
+            }
+        }
+        return fresh;
+    }
+}
@@ -0,0 +1,47 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductionPresolveStats;
+import com.projedata.productionmanager.dto.ProductionSuggestionItem;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.solver.CompiledCatalog;
+import com.projedata.productionmanager.solver.Presolve;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Monta a resposta a partir das unidades por produto do catálogo compilado. */
+final class Suggestions {
+
+    private Suggestions() {
+    }
+
+    static ProductionSuggestionResponse of(CompiledCatalog catalog, int[] units, BigDecimal optimalityGap,
+                                           Presolve.Stats presolve) {
+        List<ProductionSuggestionItem> items = new ArrayList<>();
+        BigDecimal grandTotal = BigDecimal.ZERO;
+
+        for (int j = 0; j < units.length; j++) {
+            if (units[j] <= 0) {
+                continue;
+            }
+            Product product = catalog.product(j);
+            BigDecimal totalValue = product.getPrice().multiply(BigDecimal.valueOf(units[j]));
+            grandTotal = grandTotal.add(totalValue);
+
+            items.add(new ProductionSuggestionItem(
+                    product.getId(),
+                    product.getCode(),
+                    product.getName(),
+                    units[j],
+                    product.getPrice(),
+                    totalValue
+            ));
+        }
+
+        ProductionPresolveStats presolveStats = presolve == null ? null : new ProductionPresolveStats(
+                presolve.products(), presolve.dead(), presolve.duplicates(), presolve.dominated(), presolve.remaining());
+        return new ProductionSuggestionResponse(items, grandTotal, optimalityGap, presolveStats, null, null, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.projedata.productionmanager.service;
+
+import jakarta.validation.ConstraintViolation;
+
+import java.util.Set;
+
+import static java.util.stream.Collectors.joining;
+
+/** Formata violações de Bean Validation como uma mensagem por item, para relatórios de lote e importação. */
+final class Violations {
+
+    private Violations() {
+    }
+
+    /** {@code "campo: mensagem; ..."} em ordem estável, ou {@code null} se não houver violações. */
+    static <T> String describe(String prefix, Set<ConstraintViolation<T>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> prefix + v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(joining("; "));
+    }
+}
@@ -0,0 +1,308 @@
+package com.projedata.productionmanager.solver;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Resolve o mix de produção inteiro de forma exata por branch-and-bound sobre a relaxação linear.
+ * O catálogo compilado já vem em ordem de preço decrescente: essa ordem é usada pela solução gulosa
+ * inicial e pela heurística de arredondamento, de modo que o resultado nunca é pior que o greedy.
+ * Se o orçamento de tempo acabar, ou a thread for interrompida (cancelamento de um job), devolve a melhor solução
+ * encontrada e o limite superior ainda em aberto.
+ */
+public final class BranchAndBoundSolver {
+
+    private static final double INTEGRALITY_EPS = 1e-6;
+    private static final double PRUNE_TOLERANCE = 1e-9;
+    private static final long MAX_TABLEAU_CELLS = 4_000_000L;
+
+    private final CompiledCatalog catalog;
+    private final long budgetNanos;
+
+    private final int productCount;
+    private final int materialCount;
+    private final double[] priceValues;
+    private final long[] rootUpper;
+
+    private long deadline;
+    private long[] incumbent;
+    private BigDecimal incumbentValue;
+    private int nodesExplored;
+    // Maior limite de nós descartados sem LP convergido: enquanto não for dominado, a otimalidade não está provada
+    private double unresolvedBound;
+
+    public BranchAndBoundSolver(CompiledCatalog catalog, long budgetNanos) {
+        this.catalog = catalog;
+        this.budgetNanos = budgetNanos;
+        this.productCount = catalog.productCount();
+        this.materialCount = catalog.materialCount();
+        this.priceValues = new double[productCount];
+        this.rootUpper = new long[productCount];
+        long[] stock = catalog.stock();
+        for (int j = 0; j < productCount; j++) {
+            priceValues[j] = catalog.price(j).doubleValue();
+            rootUpper[j] = catalog.maxUnits(j, stock);
+        }
+    }
+
+    public record Solution(int[] units, BigDecimal value, BigDecimal upperBound, boolean optimal, int nodes) {
+
+        /** Gap relativo (limite - incumbente) / limite; zero quando a otimalidade foi provada. */
+        public BigDecimal gap() {
+            if (optimal || upperBound.signum() <= 0) {
+                return BigDecimal.ZERO;
+            }
+            BigDecimal gap = upperBound.subtract(value).divide(upperBound, 6, RoundingMode.HALF_UP);
+            return gap.signum() < 0 ? BigDecimal.ZERO : gap;
+        }
+    }
+
+    private record Node(long[] lower, long[] upper, double bound) {}
+
+    /**
+     * @param exact falso se o LP não convergiu; o limite é então o herdado do nó pai
+     */
+    private record Relaxation(double bound, double[] x, boolean exact) {}
+
+    public Solution solve() {
+        deadline = System.nanoTime() + budgetNanos;
+        unresolvedBound = Double.NEGATIVE_INFINITY;
+
+        // Incumbente inicial: o próprio greedy por preço decrescente
+        incumbent = new long[productCount];
+        fillGreedily(incumbent, catalog.stock());
+        incumbentValue = valueOf(incumbent);
+
+        double trivialBound = 0.0;
+        for (int j = 0; j < productCount; j++) {
+            trivialBound += priceValues[j] * rootUpper[j];
+        }
+
+        // Pior caso do tableau: uma linha por matéria-prima e por produto, mais as colunas de folga
+        long rows = (long) materialCount + productCount;
+        if ((rows + 1) * (productCount + rows + 1) > MAX_TABLEAU_CELLS) {
+            return finish(trivialBound, false);
+        }
+
+        Deque<Node> open = new ArrayDeque<>();
+        open.push(new Node(new long[productCount], rootUpper.clone(), trivialBound));
+
+        while (!open.isEmpty()) {
+            Node node = open.pop();
+            if (isDominated(node.bound())) {
+                continue;
+            }
+            if (System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted()) {
+                return finish(openBound(node, open), false);
+            }
+
+            nodesExplored++;
+            long[] residual = new long[materialCount];
+            if (!catalog.residual(node.lower(), residual)) {
+                continue;
+            }
+            Relaxation relaxation = relax(node, residual);
+            if (relaxation == null) {
+                return finish(openBound(node, open), false);
+            }
+            if (isDominated(relaxation.bound())) {
+                continue;
+            }
+
+            // Heurística de arredondamento: piso da solução do LP completado pelo greedy
+            double[] x = relaxation.x();
+            long[] rounded = new long[productCount];
+            // Limitado aos limites do nó: o erro de ponto flutuante não pode passar de maxUnits, que cabe em int
+            for (int j = 0; j < productCount; j++) {
+                long floor = (long) Math.floor(x[j] + INTEGRALITY_EPS);
+                rounded[j] = Math.min(node.upper()[j], Math.max(node.lower()[j], floor));
+            }
+            if (catalog.residual(rounded, residual)) {
+                fillGreedily(rounded, residual);
+                offer(rounded);
+            }
+
+            int branch = mostFractional(node, x);
+            if (branch < 0) {
+                // Um x inteiro só resolve o nó se for o ótimo do LP
+                if (!relaxation.exact()) {
+                    unresolvedBound = Math.max(unresolvedBound, relaxation.bound());
+                }
+                continue;
+            }
+            long floor = (long) Math.floor(x[branch]);
+
+            long[] downUpper = node.upper().clone();
+            downUpper[branch] = floor;
+            if (downUpper[branch] >= node.lower()[branch]) {
+                open.push(new Node(node.lower(), downUpper, relaxation.bound()));
+            }
+
+            long[] upLower = node.lower().clone();
+            upLower[branch] = floor + 1;
+            if (upLower[branch] <= node.upper()[branch]) {
+                open.push(new Node(upLower, node.upper(), relaxation.bound()));
+            }
+        }
+        if (!isDominated(unresolvedBound)) {
+            return finish(unresolvedBound, false);
+        }
+        return finish(incumbentValue.doubleValue(), true);
+    }
+
+    private Relaxation relax(Node node, long[] residual) {
+        long[] lower = node.lower();
+        long[] upper = node.upper();
+
+        int[] column = new int[productCount];
+        int columns = 0;
+        for (int j = 0; j < productCount; j++) {
+            if (upper[j] > lower[j]) {
+                column[j] = columns++;
+            } else {
+                column[j] = -1;
+            }
+        }
+
+        double fixedValue = 0.0;
+        for (int j = 0; j < productCount; j++) {
+            fixedValue += priceValues[j] * lower[j];
+        }
+        double[] x = new double[productCount];
+        for (int j = 0; j < productCount; j++) {
+            x[j] = lower[j];
+        }
+        if (columns == 0) {
+            return new Relaxation(fixedValue, x, true);
+        }
+
+        int[] row = new int[materialCount];
+        Arrays.fill(row, -1);
+        int materialRows = 0;
+        for (int j = 0; j < productCount; j++) {
+            if (column[j] < 0) {
+                continue;
+            }
+            for (int k = catalog.rowOffsets[j]; k < catalog.rowOffsets[j + 1]; k++) {
+                int material = catalog.materialIndex[k];
+                if (row[material] < 0) {
+                    row[material] = materialRows++;
+                }
+            }
+        }
+
+        // Uma linha por matéria-prima usada e uma por limite superior de cada variável livre
+        int rows = materialRows + columns;
+        double[][] a = new double[rows][columns];
+        double[] b = new double[rows];
+        double[] c = new double[columns];
+        // A escala de ponto fixo é a mesma em A e b, então pode ser ignorada no LP
+        for (int i = 0; i < materialCount; i++) {
+            if (row[i] >= 0) {
+                b[row[i]] = residual[i];
+            }
+        }
+        int boundRow = materialRows;
+        for (int j = 0; j < productCount; j++) {
+            int col = column[j];
+            if (col < 0) {
+                continue;
+            }
+            c[col] = priceValues[j];
+            for (int k = catalog.rowOffsets[j]; k < catalog.rowOffsets[j + 1]; k++) {
+                // Soma: a mesma matéria-prima pode aparecer mais de uma vez na linha do produto
+                a[row[catalog.materialIndex[k]]][col] += catalog.quantities[k];
+            }
+            a[boundRow][col] = 1.0;
+            b[boundRow] = upper[j] - lower[j];
+            boundRow++;
+        }
+
+        LinearRelaxation.Result result = LinearRelaxation.maximize(a, b, c, deadline);
+        if (result == null) {
+            return null;
+        }
+        for (int j = 0; j < productCount; j++) {
+            if (column[j] >= 0) {
+                x[j] += result.x()[column[j]];
+            }
+        }
+        if (Double.isInfinite(result.value())) {
+            // A região do filho está contida na do pai, então o limite do pai continua valendo
+            return new Relaxation(node.bound(), x, false);
+        }
+        return new Relaxation(fixedValue + result.value(), x, true);
+    }
+
+    private int mostFractional(Node node, double[] x) {
+        int chosen = -1;
+        double best = INTEGRALITY_EPS;
+        for (int j = 0; j < productCount; j++) {
+            if (node.upper()[j] <= node.lower()[j]) {
+                continue;
+            }
+            double fraction = x[j] - Math.floor(x[j]);
+            double score = Math.min(fraction, 1.0 - fraction);
+            if (score > best) {
+                chosen = j;
+                best = score;
+            }
+        }
+        return chosen;
+    }
+
+    private boolean isDominated(double bound) {
+        double incumbentDouble = incumbentValue.doubleValue();
+        return bound <= incumbentDouble + PRUNE_TOLERANCE * Math.max(1.0, Math.abs(incumbentDouble));
+    }
+
+    private double openBound(Node current, Deque<Node> open) {
+        double bound = current.bound();
+        for (Node node : open) {
+            bound = Math.max(bound, node.bound());
+        }
+        return bound;
+    }
+
+    private Solution finish(double bound, boolean optimal) {
+        int[] units = new int[productCount];
+        // O incumbente respeita rootUpper, e maxUnits limita rootUpper a Integer.MAX_VALUE
+        for (int j = 0; j < productCount; j++) {
+            units[j] = Math.toIntExact(incumbent[j]);
+        }
+        BigDecimal upperBound = optimal ? incumbentValue : BigDecimal.valueOf(Math.max(bound, incumbentValue.doubleValue()));
+        return new Solution(units, incumbentValue, upperBound, optimal, nodesExplored);
+    }
+
+    private void offer(long[] candidate) {
+        BigDecimal value = valueOf(candidate);
+        if (value.compareTo(incumbentValue) > 0) {
+            incumbent = candidate;
+            incumbentValue = value;
+        }
+    }
+
+    private BigDecimal valueOf(long[] units) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int j = 0; j < productCount; j++) {
+            if (units[j] > 0) {
+                total = total.add(catalog.price(j).multiply(BigDecimal.valueOf(units[j])));
+            }
+        }
+        return total;
+    }
+
+    private void fillGreedily(long[] units, long[] residual) {
+        for (int j = 0; j < productCount; j++) {
+            long extra = Math.min(catalog.maxUnits(j, residual), Integer.MAX_VALUE - units[j]);
+            if (extra <= 0) {
+                continue;
+            }
+            units[j] += extra;
+            catalog.consume(j, extra, residual);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.projedata.productionmanager.solver;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catálogo compilado em linhas esparsas comprimidas (CSR) com quantidades em ponto fixo.
+ * A linha {@code j} ocupa {@code [rowOffsets[j], rowOffsets[j + 1])} em {@code materialIndex}
+ * e {@code quantities}; todas as quantidades e estoques são inteiros na mesma escala decimal,
+ * então a divisão inteira e a subtração reproduzem exatamente o cálculo com BigDecimal.
+ * Produtos sem nenhum ingrediente de quantidade positiva ficam de fora, pois nunca são fabricados.
+ * Catálogos derivados por {@link #withStock} compartilham a estrutura CSR e diferem só no estoque,
+ * o que permite recalcular o greedy a partir do primeiro produto afetado ({@link #greedyFrom}).
+ * Produtos que não compartilham nenhuma matéria-prima, direta ou transitivamente, formam componentes
+ * independentes: cada um pode ser resolvido em separado ({@link #greedyComponent},
+ * {@link #restrict}) e a união dos resultados é a mesma do catálogo inteiro.
+ */
+public final class CompiledCatalog {
+
+    private final List<Product> products;
+    private final BigDecimal[] prices;
+    final int[] rowOffsets;
+    final int[] materialIndex;
+    final long[] quantities;
+    private final long[] materialIds;
+    private final long[] stock;
+    private final int scale;
+    // Índice reverso mínimo: primeiro produto (em ordem de preço) que usa cada matéria-prima
+    private final int[] firstUse;
+    // Componentes conexos pelo compartilhamento de matérias-primas, cada um em ordem de preço
+    private final int[][] components;
+    private final Object structure;
+
+    private CompiledCatalog(List<Product> products, int[] rowOffsets, int[] materialIndex, long[] quantities,
+                            long[] materialIds, long[] stock, int scale, int[] firstUse, int[][] components,
+                            Object structure) {
+        this.products = products;
+        this.prices = products.stream().map(Product::getPrice).toArray(BigDecimal[]::new);
+        this.rowOffsets = rowOffsets;
+        this.materialIndex = materialIndex;
+        this.quantities = quantities;
+        this.materialIds = materialIds;
+        this.stock = stock;
+        this.scale = scale;
+        this.firstUse = firstUse;
+        this.components = components;
+        this.structure = structure;
+    }
+
+    /**
+     * Compila produtos já ordenados por preço decrescente.
+     *
+     * @throws ArithmeticException se alguma quantidade não couber em {@code long} na escala comum
+     */
+    public static CompiledCatalog compile(List<Product> productsByPriceDesc) {
+        List<Product> candidates = new ArrayList<>();
+        List<List<ProductIngredient>> rows = new ArrayList<>();
+        Map<Long, Integer> denseIndex = new HashMap<>();
+        List<BigDecimal> stockValues = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        int nonZeros = 0;
+        int scale = 0;
+
+        for (Product product : productsByPriceDesc) {
+            List<ProductIngredient> required = new ArrayList<>();
+            for (ProductIngredient ingredient : product.getIngredients()) {
+                if (ingredient.getQuantityRequired().signum() <= 0) {
+                    continue;
+                }
+                required.add(ingredient);
+                scale = Math.max(scale, ingredient.getQuantityRequired().stripTrailingZeros().scale());
+                Long rawMaterialId = ingredient.getRawMaterial().getId();
+                if (!denseIndex.containsKey(rawMaterialId)) {
+                    denseIndex.put(rawMaterialId, ids.size());
+                    ids.add(rawMaterialId);
+                    BigDecimal available = ingredient.getRawMaterial().getStockQuantity();
+                    stockValues.add(available);
+                    scale = Math.max(scale, available.stripTrailingZeros().scale());
+                }
+            }
+            if (required.isEmpty()) {
+                continue;
+            }
+            candidates.add(product);
+            rows.add(required);
+            nonZeros += required.size();
+        }
+
+        int[] rowOffsets = new int[candidates.size() + 1];
+        int[] materialIndex = new int[nonZeros];
+        long[] quantities = new long[nonZeros];
+        int position = 0;
+        for (int j = 0; j < rows.size(); j++) {
+            rowOffsets[j] = position;
+            for (ProductIngredient ingredient : rows.get(j)) {
+                materialIndex[position] = denseIndex.get(ingredient.getRawMaterial().getId());
+                quantities[position] = toFixed(ingredient.getQuantityRequired(), scale);
+                position++;
+            }
+        }
+        rowOffsets[rows.size()] = position;
+
+        long[] stock = new long[stockValues.size()];
+        for (int i = 0; i < stock.length; i++) {
+            stock[i] = toFixed(stockValues.get(i), scale);
+        }
+        long[] materialIds = ids.stream().mapToLong(Long::longValue).toArray();
+
+        return new CompiledCatalog(List.copyOf(candidates), rowOffsets, materialIndex, quantities, materialIds, stock,
+                scale, firstUse(stock.length, rowOffsets, materialIndex),
+                components(stock.length, rowOffsets, materialIndex), new Object());
+    }
+
+    private static int[] firstUse(int materials, int[] rowOffsets, int[] materialIndex) {
+        int products = rowOffsets.length - 1;
+        int[] firstUse = new int[materials];
+        Arrays.fill(firstUse, products);
+        for (int j = products - 1; j >= 0; j--) {
+            for (int k = rowOffsets[j]; k < rowOffsets[j + 1]; k++) {
+                firstUse[materialIndex[k]] = j;
+            }
+        }
+        return firstUse;
+    }
+
+    // Union-find sobre as matérias-primas: cada produto une todas as que consome
+    private static int[][] components(int materials, int[] rowOffsets, int[] materialIndex) {
+        int products = rowOffsets.length - 1;
+        int[] parent = new int[materials];
+        for (int i = 0; i < materials; i++) {
+            parent[i] = i;
+        }
+        for (int j = 0; j < products; j++) {
+            int root = find(parent, materialIndex[rowOffsets[j]]);
+            for (int k = rowOffsets[j] + 1; k < rowOffsets[j + 1]; k++) {
+                int other = find(parent, materialIndex[k]);
+                if (other != root) {
+                    parent[other] = root;
+                }
+            }
+        }
+
+        // Numera os componentes na ordem do seu produto mais caro
+        int[] componentOfRoot = new int[materials];
+        Arrays.fill(componentOfRoot, -1);
+        int[] componentOfProduct = new int[products];
+        int[] sizes = new int[products];
+        int count = 0;
+        for (int j = 0; j < products; j++) {
+            int root = find(parent, materialIndex[rowOffsets[j]]);
+            if (componentOfRoot[root] < 0) {
+                componentOfRoot[root] = count++;
+            }
+            componentOfProduct[j] = componentOfRoot[root];
+            sizes[componentOfProduct[j]]++;
+        }
+        int[][] components = new int[count][];
+        for (int c = 0; c < count; c++) {
+            components[c] = new int[sizes[c]];
+            sizes[c] = 0;
+        }
+        for (int j = 0; j < products; j++) {
+            int c = componentOfProduct[j];
+            components[c][sizes[c]++] = j;
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Deriva um catálogo com a mesma estrutura e novos estoques, trocando as entidades indicadas.
+     *
+     * @throws ArithmeticException se algum estoque novo não couber na escala de ponto fixo atual
+     */
+    public CompiledCatalog withStock(Map<Long, BigDecimal> stockByMaterialId, Map<Long, Product> replacements) {
+        long[] newStock = stock.clone();
+        for (int i = 0; i < materialIds.length; i++) {
+            BigDecimal quantity = stockByMaterialId.get(materialIds[i]);
+            if (quantity != null) {
+                newStock[i] = toFixed(quantity, scale);
+            }
+        }
+        List<Product> newProducts = replacements.isEmpty() ? products
+                : products.stream().map(p -> replacements.getOrDefault(p.getId(), p)).toList();
+        return new CompiledCatalog(newProducts, rowOffsets, materialIndex, quantities,
+                materialIds, newStock, scale, firstUse, components, structure);
+    }
+
+    /**
+     * Catálogo só com os produtos e matérias-primas de um componente, na mesma escala e ordem de preço.
+     * O produto {@code j} do resultado é o produto {@code componentProducts(component)[j]} deste catálogo.
+     */
+    public CompiledCatalog restrict(int component) {
+        return subset(components[component]);
+    }
+
+    /**
+     * Catálogo só com os produtos indicados (em ordem crescente de índice) e as matérias-primas que eles usam,
+     * numeradas na ordem de {@link #materialsOf}. Os componentes são recalculados sobre o subconjunto.
+     */
+    public CompiledCatalog subset(int[] rows) {
+        int[] materials = materialsOf(rows);
+        int[] localMaterial = new int[stock.length];
+        Arrays.fill(localMaterial, -1);
+        for (int i = 0; i < materials.length; i++) {
+            localMaterial[materials[i]] = i;
+        }
+        int nonZeros = 0;
+        for (int j : rows) {
+            nonZeros += rowOffsets[j + 1] - rowOffsets[j];
+        }
+
+        List<Product> subset = new ArrayList<>(rows.length);
+        int[] newOffsets = new int[rows.length + 1];
+        int[] newMaterialIndex = new int[nonZeros];
+        long[] newQuantities = new long[nonZeros];
+        int position = 0;
+        for (int r = 0; r < rows.length; r++) {
+            int j = rows[r];
+            subset.add(products.get(j));
+            newOffsets[r] = position;
+            for (int k = rowOffsets[j]; k < rowOffsets[j + 1]; k++) {
+                newMaterialIndex[position] = localMaterial[materialIndex[k]];
+                newQuantities[position] = quantities[k];
+                position++;
+            }
+        }
+        newOffsets[rows.length] = position;
+
+        long[] newIds = new long[materials.length];
+        long[] newStock = new long[materials.length];
+        for (int i = 0; i < materials.length; i++) {
+            newIds[i] = materialIds[materials[i]];
+            newStock[i] = stock[materials[i]];
+        }
+        return new CompiledCatalog(List.copyOf(subset), newOffsets, newMaterialIndex, newQuantities, newIds, newStock,
+                scale, firstUse(materials.length, newOffsets, newMaterialIndex),
+                components(materials.length, newOffsets, newMaterialIndex), new Object());
+    }
+
+    /** Matérias-primas usadas pelos produtos indicados, na ordem em que aparecem pela primeira vez. */
+    public int[] materialsOf(int[] rows) {
+        boolean[] seen = new boolean[stock.length];
+        int[] materials = new int[stock.length];
+        int count = 0;
+        for (int j : rows) {
+            for (int k = rowOffsets[j]; k < rowOffsets[j + 1]; k++) {
+                if (!seen[materialIndex[k]]) {
+                    seen[materialIndex[k]] = true;
+                    materials[count++] = materialIndex[k];
+                }
+            }
+        }
+        return Arrays.copyOf(materials, count);
+    }
+
+    /** Verdadeiro se ambos vêm da mesma compilação e diferem, no máximo, no estoque. */
+    public boolean sharesStructureWith(CompiledCatalog other) {
+        return other != null && other.structure == structure;
+    }
+
+    private static long toFixed(BigDecimal value, int scale) {
+        return value.movePointRight(scale).longValueExact();
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    public int materialCount() {
+        return stock.length;
+    }
+
+    public Product product(int index) {
+        return products.get(index);
+    }
+
+    public BigDecimal price(int index) {
+        return prices[index];
+    }
+
+    public int componentCount() {
+        return components.length;
+    }
+
+    public int componentSize(int component) {
+        return components[component].length;
+    }
+
+    /** Índices, em ordem de preço, dos produtos do componente. */
+    public int[] componentProducts(int component) {
+        return components[component].clone();
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    public long materialId(int index) {
+        return materialIds[index];
+    }
+
+    /** Estoque inicial da matéria-prima de volta em decimal. */
+    public BigDecimal stockQuantity(int material) {
+        return BigDecimal.valueOf(stock[material], scale);
+    }
+
+    /** Cópia do estoque inicial em ponto fixo, pronta para ser consumida. */
+    public long[] stock() {
+        return stock.clone();
+    }
+
+    /** Maior número de unidades do produto que cabe no estoque informado. */
+    public long maxUnits(int product, long[] available) {
+        long units = Integer.MAX_VALUE;
+        for (int k = rowOffsets[product]; k < rowOffsets[product + 1]; k++) {
+            units = Math.min(units, available[materialIndex[k]] / quantities[k]);
+        }
+        return Math.max(0, units);
+    }
+
+    /** Desconta o consumo; não estoura porque {@code units <= available / quantity} em cada linha. */
+    public void consume(int product, long units, long[] available) {
+        for (int k = rowOffsets[product]; k < rowOffsets[product + 1]; k++) {
+            available[materialIndex[k]] -= quantities[k] * units;
+        }
+    }
+
+    /**
+     * Verifica se o plano cabe no estoque, acumulando o residual em {@code residual}.
+     * Usa aritmética exata com detecção de overflow: um plano que estoura {@code long} é inviável.
+     */
+    public boolean residual(long[] units, long[] residual) {
+        System.arraycopy(stock, 0, residual, 0, stock.length);
+        for (int j = 0; j < products.size(); j++) {
+            if (units[j] == 0) {
+                continue;
+            }
+            for (int k = rowOffsets[j]; k < rowOffsets[j + 1]; k++) {
+                int material = materialIndex[k];
+                try {
+                    residual[material] = Math.subtractExact(residual[material], Math.multiplyExact(quantities[k], units[j]));
+                } catch (ArithmeticException ex) {
+                    return false;
+                }
+                if (residual[material] < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Greedy por preço decrescente sobre o estoque informado, que é consumido no lugar. */
+    public int[] greedy(long[] available) {
+        int[] units = new int[products.size()];
+        greedy(0, units, available);
+        return units;
+    }
+
+    /**
+     * Greedy restrito a um componente. Só lê e escreve as posições dos seus produtos em {@code units} e das suas
+     * matérias-primas em {@code available}, então componentes distintos podem rodar em paralelo sobre os mesmos arrays.
+     */
+    public void greedyComponent(int component, int[] units, long[] available) {
+        for (int j : components[component]) {
+            long feasible = maxUnits(j, available);
+            if (feasible <= 0) {
+                continue;
+            }
+            consume(j, feasible, available);
+            units[j] = (int) feasible;
+        }
+    }
+
+    private void greedy(int start, int[] units, long[] available) {
+        for (int j = start; j < units.length; j++) {
+            long feasible = maxUnits(j, available);
+            if (feasible <= 0) {
+                continue;
+            }
+            consume(j, feasible, available);
+            units[j] = (int) feasible;
+        }
+    }
+
+    /**
+     * Greedy incremental: parte do resultado de {@code previous} (mesma estrutura) e reavalia apenas
+     * a partir do primeiro produto que usa alguma matéria-prima cujo estoque mudou. O prefixo não
+     * consome nenhuma dessas matérias-primas, então suas unidades continuam válidas.
+     *
+     * @param remaining entra com o estoque restante do cálculo anterior e sai com o novo
+     */
+    public int[] greedyFrom(CompiledCatalog previous, int[] previousUnits, long[] remaining) {
+        if (!sharesStructureWith(previous)) {
+            throw new IllegalArgumentException("Catalogs do not share the same structure");
+        }
+        int start = products.size();
+        for (int i = 0; i < stock.length; i++) {
+            if (stock[i] != previous.stock[i]) {
+                start = Math.min(start, firstUse[i]);
+            }
+        }
+
+        // Devolve ao estoque o que o sufixo havia consumido
+        int[] units = previousUnits.clone();
+        for (int j = start; j < units.length; j++) {
+            for (int k = rowOffsets[j]; k < rowOffsets[j + 1]; k++) {
+                remaining[materialIndex[k]] += quantities[k] * units[j];
+            }
+            units[j] = 0;
+        }
+        for (int i = 0; i < stock.length; i++) {
+            if (stock[i] != previous.stock[i]) {
+                remaining[i] = stock[i];
+            }
+        }
+        greedy(start, units, remaining);
+        return units;
+    }
+
+    public BigDecimal valueOf(int[] units) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int j = 0; j < units.length; j++) {
+            if (units[j] > 0) {
+                total = total.add(prices[j].multiply(BigDecimal.valueOf(units[j])));
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,124 @@
+package com.projedata.productionmanager.solver;
+
+/**
+ * Simplex primal denso para a relaxação linear do problema de produção:
+ * maximizar c·x sujeito a A·x <= b, x >= 0, com A >= 0 e b >= 0.
+ * Como a origem é sempre viável, a base inicial de folgas dispensa a fase 1.
+ */
+final class LinearRelaxation {
+
+    private static final double EPS = 1e-9;
+    private static final int DEGENERATE_PIVOTS_BEFORE_BLAND = 50;
+
+    private LinearRelaxation() {}
+
+    record Result(double value, double[] x) {}
+
+    /**
+     * Resolve o LP ou retorna {@code null} se o prazo ({@link System#nanoTime()}) for atingido ou a thread
+     * for interrompida. Se o limite de iterações acabar antes da convergência, o valor é
+     * {@link Double#POSITIVE_INFINITY}, como num LP ilimitado: o objetivo de um tableau não ótimo não é limite
+     * superior de nada. O {@code x} devolvido continua sendo uma solução viável.
+     */
+    static Result maximize(double[][] a, double[] b, double[] c, long deadlineNanos) {
+        int rows = b.length;
+        int vars = c.length;
+        int width = vars + rows + 1;
+        double[][] tableau = new double[rows + 1][width];
+        int[] basis = new int[rows];
+
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(a[i], 0, tableau[i], 0, vars);
+            tableau[i][vars + i] = 1.0;
+            tableau[i][width - 1] = b[i];
+            basis[i] = vars + i;
+        }
+        double[] objective = tableau[rows];
+        for (int j = 0; j < vars; j++) {
+            objective[j] = -c[j];
+        }
+
+        int degenerate = 0;
+        long maxIterations = 50L * (rows + vars) + 1000;
+        for (long iteration = 0; iteration < maxIterations; iteration++) {
+            if (System.nanoTime() - deadlineNanos > 0 || Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+
+            // Dantzig por padrão; regra de Bland após muitos pivôs degenerados para evitar ciclagem
+            boolean bland = degenerate > DEGENERATE_PIVOTS_BEFORE_BLAND;
+            int entering = -1;
+            double best = -EPS;
+            for (int j = 0; j < width - 1; j++) {
+                if (objective[j] < best) {
+                    entering = j;
+                    if (bland) {
+                        break;
+                    }
+                    best = objective[j];
+                }
+            }
+            if (entering < 0) {
+                break;
+            }
+
+            int leaving = -1;
+            double minRatio = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < rows; i++) {
+                double coefficient = tableau[i][entering];
+                if (coefficient > EPS) {
+                    double ratio = tableau[i][width - 1] / coefficient;
+                    if (ratio < minRatio - EPS
+                            || (ratio <= minRatio + EPS && leaving >= 0 && basis[i] < basis[leaving])) {
+                        minRatio = ratio;
+                        leaving = i;
+                    }
+                }
+            }
+            if (leaving < 0) {
+                return new Result(Double.POSITIVE_INFINITY, new double[vars]);
+            }
+            degenerate = minRatio <= EPS ? degenerate + 1 : 0;
+            pivot(tableau, leaving, entering);
+            basis[leaving] = entering;
+            if (iteration == maxIterations - 1) {
+                return new Result(Double.POSITIVE_INFINITY, primal(tableau, basis, vars));
+            }
+        }
+        return new Result(objective[width - 1], primal(tableau, basis, vars));
+    }
+
+    private static double[] primal(double[][] tableau, int[] basis, int vars) {
+        int rhs = tableau[0].length - 1;
+        double[] x = new double[vars];
+        for (int i = 0; i < basis.length; i++) {
+            if (basis[i] < vars) {
+                x[basis[i]] = Math.max(0.0, tableau[i][rhs]);
+            }
+        }
+        return x;
+    }
+
+    private static void pivot(double[][] tableau, int row, int col) {
+        double[] pivotRow = tableau[row];
+        double inverse = 1.0 / pivotRow[col];
+        for (int j = 0; j < pivotRow.length; j++) {
+            pivotRow[j] *= inverse;
+        }
+        pivotRow[col] = 1.0;
+        for (int i = 0; i < tableau.length; i++) {
+            if (i == row) {
+                continue;
+            }
+            double[] current = tableau[i];
+            double factor = current[col];
+            if (factor == 0.0) {
+                continue;
+            }
+            for (int j = 0; j < current.length; j++) {
+                current[j] -= factor * pivotRow[j];
+            }
+            current[col] = 0.0;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.projedata.productionmanager.solver;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Busca local "anytime" a partir de um plano viável (normalmente o greedy). Cada movimento retira de 1 a
+ * {@value #MAX_REMOVED_UNITS} unidades de um produto fabricado, opcionalmente empurra um produto que disputa uma das
+ * matérias-primas liberadas e então completa, em ordem de preço, os produtos que usam essas matérias-primas. A
+ * viabilidade é incremental: só as linhas tocadas são verificadas contra o estoque residual. O movimento fica se o
+ * valor sobe estritamente; senão é desfeito. Para no prazo, na interrupção da thread ou após
+ * {@value #MAX_STALE_MOVES} tentativas seguidas sem melhora.
+ *
+ * <p>Os preços são comparados como inteiros na escala comum, então não há empate decidido por arredondamento.
+ */
+public final class LocalSearchImprover {
+
+    private static final int MAX_REMOVED_UNITS = 3;
+    private static final int MAX_STALE_MOVES = 100_000;
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    private final CompiledCatalog catalog;
+    private final long[] prices;
+    // Transposta do CSR: produtos de cada matéria-prima em ordem de preço
+    private final int[] userOffsets;
+    private final int[] users;
+    private final Random random;
+
+    private int[] units;
+    private long[] residual;
+    private int[] active;
+    private int activeCount;
+    // Registro do movimento corrente para desfazê-lo: produto e unidades somadas (negativas na retirada)
+    private int[] logProducts = new int[16];
+    private int[] logUnits = new int[16];
+    private int logSize;
+    private final int[] candidates;
+    private final int[] mark;
+    private int stamp;
+
+    /**
+     * @param moves    movimentos avaliados
+     * @param accepted movimentos que melhoraram o plano
+     */
+    public record Result(int[] units, long[] remaining, int moves, int accepted) {}
+
+    public LocalSearchImprover(CompiledCatalog catalog, long seed) {
+        this.catalog = catalog;
+        this.prices = scaledPrices(catalog);
+        this.random = new Random(seed);
+        int productCount = catalog.productCount();
+        int materialCount = catalog.materialCount();
+
+        userOffsets = new int[materialCount + 1];
+        for (int k = 0; k < catalog.rowOffsets[productCount]; k++) {
+            userOffsets[catalog.materialIndex[k] + 1]++;
+        }
+        for (int i = 0; i < materialCount; i++) {
+            userOffsets[i + 1] += userOffsets[i];
+        }
+        users = new int[catalog.rowOffsets[productCount]];
+        int[] next = Arrays.copyOf(userOffsets, materialCount);
+        for (int j = 0; j < productCount; j++) {
+            for (int k = catalog.rowOffsets[j]; k < catalog.rowOffsets[j + 1]; k++) {
+                users[next[catalog.materialIndex[k]]++] = j;
+            }
+        }
+        candidates = new int[productCount];
+        mark = new int[productCount];
+    }
+
+    // null se algum preço não cabe em long na escala comum: a busca é desligada
+    private static long[] scaledPrices(CompiledCatalog catalog) {
+        int scale = 0;
+        for (int j = 0; j < catalog.productCount(); j++) {
+            scale = Math.max(scale, catalog.price(j).stripTrailingZeros().scale());
+        }
+        long[] prices = new long[catalog.productCount()];
+        try {
+            for (int j = 0; j < prices.length; j++) {
+                BigDecimal price = catalog.price(j);
+                prices[j] = price.movePointRight(scale).longValueExact();
+            }
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+        return prices;
+    }
+
+    /**
+     * Melhora o plano até {@code deadlineNanos} (no relógio de {@link System#nanoTime()}).
+     *
+     * @param start     unidades iniciais, viáveis no estoque do catálogo; não é alterado
+     * @param remaining estoque residual de {@code start}; não é alterado
+     */
+    public Result improve(int[] start, long[] remaining, long deadlineNanos) {
+        units = start.clone();
+        residual = remaining.clone();
+        rebuildActive();
+        if (prices == null) {
+            return new Result(units, residual, 0, 0);
+        }
+
+        int moves = 0;
+        int accepted = 0;
+        int stale = 0;
+        while (activeCount > 0 && stale < MAX_STALE_MOVES) {
+            if (moves % DEADLINE_CHECK_INTERVAL == 0
+                    && (System.nanoTime() - deadlineNanos >= 0 || Thread.currentThread().isInterrupted())) {
+                break;
+            }
+            moves++;
+            if (tryMove()) {
+                accepted++;
+                stale = 0;
+                rebuildActive();
+            } else {
+                stale++;
+            }
+        }
+        return new Result(units, residual, moves, accepted);
+    }
+
+    private boolean tryMove() {
+        logSize = 0;
+        int removed = active[random.nextInt(activeCount)];
+        int k = 1 + random.nextInt(Math.min(units[removed], MAX_REMOVED_UNITS));
+        long gain;
+        try {
+            gain = apply(removed, -k);
+
+            int from = catalog.rowOffsets[removed];
+            int to = catalog.rowOffsets[removed + 1];
+            if (random.nextBoolean()) {
+                // Troca: outro produto que disputa uma das matérias-primas liberadas tem prioridade no reenchimento
+                int material = catalog.materialIndex[from + random.nextInt(to - from)];
+                int rivals = userOffsets[material + 1] - userOffsets[material];
+                int rival = users[userOffsets[material] + random.nextInt(rivals)];
+                if (rival != removed) {
+                    gain = Math.addExact(gain, fill(rival));
+                }
+            }
+
+            // Só produtos que usam matérias-primas liberadas podem ganhar unidades
+            int count = 0;
+            stamp++;
+            for (int p = from; p < to; p++) {
+                int material = catalog.materialIndex[p];
+                for (int u = userOffsets[material]; u < userOffsets[material + 1]; u++) {
+                    int product = users[u];
+                    if (product != removed && mark[product] != stamp) {
+                        mark[product] = stamp;
+                        candidates[count++] = product;
+                    }
+                }
+            }
+            Arrays.sort(candidates, 0, count);
+            for (int c = 0; c < count; c++) {
+                gain = Math.addExact(gain, fill(candidates[c]));
+            }
+            gain = Math.addExact(gain, fill(removed));
+        } catch (ArithmeticException ex) {
+            gain = 0;
+        }
+
+        if (gain > 0) {
+            return true;
+        }
+        for (int i = logSize - 1; i >= 0; i--) {
+            units[logProducts[i]] -= logUnits[i];
+            catalog.consume(logProducts[i], -logUnits[i], residual);
+        }
+        return false;
+    }
+
+    // Completa o produto com o que couber no residual; devolve o valor acrescentado
+    private long fill(int product) {
+        long feasible = Math.min(catalog.maxUnits(product, residual), (long) Integer.MAX_VALUE - units[product]);
+        return feasible > 0 ? apply(product, (int) feasible) : 0;
+    }
+
+    private long apply(int product, int delta) {
+        if (logSize == logProducts.length) {
+            logProducts = Arrays.copyOf(logProducts, logSize * 2);
+            logUnits = Arrays.copyOf(logUnits, logSize * 2);
+        }
+        logProducts[logSize] = product;
+        logUnits[logSize] = delta;
+        logSize++;
+        units[product] += delta;
+        catalog.consume(product, delta, residual);
+        return Math.multiplyExact(prices[product], (long) delta);
+    }
+
+    private void rebuildActive() {
+        if (active == null) {
+            active = new int[units.length];
+        }
+        activeCount = 0;
+        for (int j = 0; j < units.length; j++) {
+            if (units[j] > 0) {
+                active[activeCount++] = j;
+            }
+        }
+    }
+}
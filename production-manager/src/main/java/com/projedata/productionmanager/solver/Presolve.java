@@ -0,0 +1,191 @@
+package com.projedata.productionmanager.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redução do catálogo compilado antes de resolver. Remove produtos que o estoque atual não permite fabricar
+ * ({@code dead}) e produtos dominados por outro que vem antes na ordem de preço, usa as mesmas matérias-primas e
+ * não pede mais de nenhuma delas ({@code duplicates} quando as quantidades são idênticas, {@code dominated} quando
+ * são menores). Nenhum dos removidos recebe unidades no greedy sobre o catálogo inteiro: o dominante esgota alguma
+ * matéria-prima que o dominado também exige em quantidade igual ou maior. No modo ótimo cada unidade do dominado
+ * pode ser trocada por uma do dominante sem perder valor, então o ótimo também se mantém.
+ */
+public final class Presolve {
+
+    // Comparações por produto contra os já mantidos com as mesmas matérias-primas: limita o pior caso quadrático
+    private static final int MAX_DOMINANCE_CHECKS = 32;
+
+    private final CompiledCatalog original;
+    private final CompiledCatalog reduced;
+    private final int[] products;
+    private final int[] materials;
+    private final Stats stats;
+
+    /**
+     * @param products   produtos com ingredientes considerados
+     * @param dead       sem estoque para uma unidade sequer
+     * @param duplicates mesmo vetor de ingredientes de um produto de preço maior ou igual
+     * @param dominated  mesmas matérias-primas em quantidades menores ou iguais, a preço maior ou igual
+     * @param remaining  produtos que seguem para o solver
+     */
+    public record Stats(int products, int dead, int duplicates, int dominated, int remaining) {}
+
+    private Presolve(CompiledCatalog original, int[] products, Stats stats) {
+        this.original = original;
+        this.products = products;
+        if (products.length == original.productCount()) {
+            this.reduced = original;
+            this.materials = new int[original.materialCount()];
+            Arrays.setAll(materials, i -> i);
+        } else {
+            this.reduced = original.subset(products);
+            this.materials = original.materialsOf(products);
+        }
+        this.stats = stats;
+    }
+
+    public static Presolve apply(CompiledCatalog catalog) {
+        int[] kept = new int[catalog.productCount()];
+        Stats stats = analyze(catalog, kept);
+        return new Presolve(catalog, Arrays.copyOf(kept, stats.remaining()), stats);
+    }
+
+    /** Só as contagens de {@link #apply}, sem montar o catálogo reduzido. */
+    public static Stats stats(CompiledCatalog catalog) {
+        return analyze(catalog, new int[catalog.productCount()]);
+    }
+
+    // Preenche kept com os produtos mantidos, em ordem de preço
+    private static Stats analyze(CompiledCatalog catalog, int[] kept) {
+        long[] stock = catalog.stock();
+        int count = 0;
+        int dead = 0;
+        int duplicates = 0;
+        int dominated = 0;
+        Map<MaterialSet, List<Integer>> keptBySet = new HashMap<>();
+
+        for (int j = 0; j < catalog.productCount(); j++) {
+            if (catalog.maxUnits(j, stock) == 0) {
+                dead++;
+                continue;
+            }
+            MaterialSet set = MaterialSet.of(catalog, j);
+            if (set == null) {
+                // Matéria-prima repetida na composição: fica fora da comparação
+                kept[count++] = j;
+                continue;
+            }
+            List<Integer> candidates = keptBySet.computeIfAbsent(set, s -> new ArrayList<>());
+            int verdict = 0;
+            for (int c = candidates.size() - 1; c >= Math.max(0, candidates.size() - MAX_DOMINANCE_CHECKS); c--) {
+                verdict = compare(catalog, candidates.get(c), j, stock);
+                if (verdict != 0) {
+                    break;
+                }
+            }
+            if (verdict == 1) {
+                duplicates++;
+            } else if (verdict == 2) {
+                dominated++;
+            } else {
+                candidates.add(j);
+                kept[count++] = j;
+            }
+        }
+        return new Stats(catalog.productCount(), dead, duplicates, dominated, count);
+    }
+
+    /**
+     * 1 se {@code later} tem o mesmo vetor de {@code earlier}, 2 se pede quantidades menores ou iguais com alguma
+     * diferença, 0 se não é dominado. Exige que {@code earlier} fique limitado pelo estoque e não pelo teto de
+     * {@code int}, pois é a matéria-prima esgotada que garante zero unidades para {@code later}.
+     */
+    private static int compare(CompiledCatalog catalog, int earlier, int later, long[] stock) {
+        if (catalog.maxUnits(earlier, stock) >= Integer.MAX_VALUE) {
+            return 0;
+        }
+        long[] earlierQuantities = sortedQuantities(catalog, earlier);
+        long[] laterQuantities = sortedQuantities(catalog, later);
+        boolean identical = true;
+        for (int i = 0; i < earlierQuantities.length; i++) {
+            if (earlierQuantities[i] > laterQuantities[i]) {
+                return 0;
+            }
+            identical &= earlierQuantities[i] == laterQuantities[i];
+        }
+        return identical ? 1 : 2;
+    }
+
+    // Quantidades na ordem crescente de matéria-prima, alinhadas entre produtos com o mesmo MaterialSet
+    private static long[] sortedQuantities(CompiledCatalog catalog, int product) {
+        int from = catalog.rowOffsets[product];
+        int to = catalog.rowOffsets[product + 1];
+        long[] keyed = new long[to - from];
+        Integer[] order = new Integer[to - from];
+        for (int k = from; k < to; k++) {
+            order[k - from] = k;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(catalog.materialIndex[a], catalog.materialIndex[b]));
+        for (int i = 0; i < order.length; i++) {
+            keyed[i] = catalog.quantities[order[i]];
+        }
+        return keyed;
+    }
+
+    private record MaterialSet(int[] materials) {
+
+        // null quando a composição repete uma matéria-prima
+        static MaterialSet of(CompiledCatalog catalog, int product) {
+            int[] materials = Arrays.copyOfRange(catalog.materialIndex,
+                    catalog.rowOffsets[product], catalog.rowOffsets[product + 1]);
+            Arrays.sort(materials);
+            for (int i = 1; i < materials.length; i++) {
+                if (materials[i] == materials[i - 1]) {
+                    return null;
+                }
+            }
+            return new MaterialSet(materials);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof MaterialSet set && Arrays.equals(materials, set.materials);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(materials);
+        }
+    }
+
+    /** Catálogo reduzido; é o próprio original quando nada foi removido. */
+    public CompiledCatalog reduced() {
+        return reduced;
+    }
+
+    public Stats stats() {
+        return stats;
+    }
+
+    /** Unidades do catálogo reduzido nos índices do original; produtos removidos ficam com zero. */
+    public int[] expandUnits(int[] reducedUnits) {
+        int[] units = new int[original.productCount()];
+        for (int r = 0; r < products.length; r++) {
+            units[products[r]] = reducedUnits[r];
+        }
+        return units;
+    }
+
+    /** Estoque restante nos índices do original; matérias-primas só dos removidos continuam intactas. */
+    public long[] expandRemaining(long[] reducedRemaining) {
+        long[] remaining = original.stock();
+        for (int i = 0; i < materials.length; i++) {
+            remaining[materials[i]] = reducedRemaining[i];
+        }
+        return remaining;
+    }
+}
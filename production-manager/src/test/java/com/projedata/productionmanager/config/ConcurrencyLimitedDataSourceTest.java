@@ -0,0 +1,86 @@
+package com.projedata.productionmanager.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, 50);
+    }
+
+    @Test
+    @DisplayName("Should fail fast once every permit is held and recover after a connection is closed")
+    void shouldBoundBorrowedConnections() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(2)).getConnection();
+
+        first.close();
+        first.close();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should park virtual threads in the queue until a permit is released")
+    void shouldQueueVirtualThreads() throws Exception {
+        dataSource = new ConcurrencyLimitedDataSource(target, 1, 5_000);
+        Connection held = dataSource.getConnection();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }, executor);
+            while (dataSource.waiting() == 0) {
+                Thread.onSpinWait();
+            }
+            assertThat(waiting).isNotDone();
+
+            held.close();
+            assertThat(waiting.get(1, TimeUnit.SECONDS)).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the underlying pool fails")
+    void shouldReleasePermitOnFailure() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool down");
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.projedata.productionmanager.controller;
+
+import com.projedata.productionmanager.dto.ProductionScenariosRequest;
+import com.projedata.productionmanager.service.CatalogChangedEvent;
+import com.projedata.productionmanager.service.CatalogSnapshotService;
+import com.projedata.productionmanager.service.ProductionCalculatorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogEtagInterceptorTest {
+
+    @Mock
+    private ProductionCalculatorService calculatorService;
+
+    private CatalogSnapshotService catalogSnapshotService;
+    private CatalogEtagInterceptor interceptor;
+    private HandlerMethod suggestion;
+    private HandlerMethod scenarios;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        // Só a versão é usada: o catálogo nunca é carregado
+        catalogSnapshotService = new CatalogSnapshotService(null, null, new SimpleMeterRegistry());
+        interceptor = new CatalogEtagInterceptor(catalogSnapshotService);
+        ProductionCalculatorController controller = new ProductionCalculatorController(calculatorService, null, null, null, null);
+        suggestion = new HandlerMethod(controller,
+                ProductionCalculatorController.class.getMethod("getSuggestion", String.class, Long.class,
+                        String.class, String.class, HttpServletResponse.class));
+        scenarios = new HandlerMethod(controller,
+                ProductionCalculatorController.class.getMethod("compareScenarios", ProductionScenariosRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for the current catalog version without reaching the controller")
+    void shouldShortCircuitMatchingIfNoneMatch() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(null), first, suggestion)).isTrue();
+        String etag = first.getHeader("ETag");
+        assertThat(etag).matches("\"[0-9a-z]+-0\"");
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("no-cache");
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(etag), second, suggestion)).isFalse();
+        assertThat(second.getStatus()).isEqualTo(304);
+        verifyNoInteractions(calculatorService);
+    }
+
+    @Test
+    @DisplayName("Should issue a new ETag once a write advances the catalog version")
+    void shouldChangeEtagAfterWrite() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(get(null), first, suggestion);
+
+        catalogSnapshotService.onCatalogChanged(CatalogChangedEvent.rawMaterial(1L));
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(first.getHeader("ETag")), second, suggestion)).isTrue();
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getHeader("ETag")).isNotEqualTo(first.getHeader("ETag")).endsWith("-1\"");
+    }
+
+    @Test
+    @DisplayName("Should leave handlers without @CatalogEtag untouched")
+    void shouldIgnoreUnannotatedHandlers() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(get("\"anything\""), response, scenarios)).isTrue();
+        assertThat(response.getHeader("ETag")).isNull();
+    }
+
+    private static MockHttpServletRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/production/suggestion");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return request;
+    }
+}
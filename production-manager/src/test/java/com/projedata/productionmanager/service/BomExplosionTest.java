@@ -0,0 +1,84 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BomExplosionTest {
+
+    private final RawMaterial steel = RawMaterial.builder().id(1L).code("RM-001").stockQuantity(BigDecimal.TEN).build();
+    private final RawMaterial paint = RawMaterial.builder().id(2L).code("RM-002").stockQuantity(BigDecimal.TEN).build();
+
+    @Test
+    @DisplayName("Should flatten shared sub-assemblies and reuse unchanged vectors on the next explosion")
+    void shouldFlattenAndReuse() {
+        // Roda -> 0,5 de tinta; Eixo -> 1 de aço + 2 rodas; Carro -> 2 eixos + 1 roda avulsa
+        Product wheel = product(1L, 5);
+        add(wheel, paint, null, "0.5");
+        Product axle = product(2L, 10);
+        add(axle, steel, null, "1");
+        add(axle, null, wheel, "2");
+        Product car = product(3L, 100);
+        add(car, null, axle, "2");
+        add(car, null, wheel, "1");
+
+        BomExplosion bom = BomExplosion.of(List.of(car, axle, wheel), null);
+
+        assertThat(bom.composite(3L)).isTrue();
+        assertThat(bom.composite(1L)).isFalse();
+        assertThat(bom.requirements(3L)).containsExactly(
+                Map.entry(1L, new BigDecimal("2")), Map.entry(2L, new BigDecimal("2.5")));
+        assertThat(bom.computed()).isEqualTo(3);
+        Product exploded = bom.explode(car, Map.of(1L, steel, 2L, paint));
+        assertThat(exploded).isNotSameAs(car);
+        assertThat(exploded.getIngredients()).extracting(ProductIngredient::getRawMaterial)
+                .containsExactly(steel, paint);
+        assertThat(bom.explode(wheel, Map.of())).isSameAs(wheel);
+
+        BomExplosion unchanged = BomExplosion.of(List.of(car, axle, wheel), bom);
+        assertThat(unchanged.reused()).isEqualTo(3);
+        assertThat(unchanged.computed()).isZero();
+
+        // Só o eixo e o carro dependem do eixo; a roda segue reaproveitada
+        axle.getIngredients().get(0).setQuantityRequired(new BigDecimal("3"));
+        BomExplosion changed = BomExplosion.of(List.of(car, axle, wheel), unchanged);
+        assertThat(changed.reused()).isEqualTo(1);
+        assertThat(changed.requirements(3L)).containsEntry(1L, new BigDecimal("6"));
+    }
+
+    @Test
+    @DisplayName("Should leave products on a cycle unresolved and without ingredients")
+    void shouldIsolateCycles() {
+        Product first = product(1L, 5);
+        Product second = product(2L, 5);
+        add(first, null, second, "1");
+        add(second, null, first, "1");
+        add(second, steel, null, "1");
+
+        BomExplosion bom = BomExplosion.of(List.of(first, second), null);
+
+        assertThat(bom.unresolved()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(bom.explode(first, Map.of(1L, steel)).getIngredients()).isEmpty();
+    }
+
+    private static Product product(Long id, int price) {
+        return Product.builder().id(id).code("P-" + id).name("Product " + id).price(BigDecimal.valueOf(price)).build();
+    }
+
+    private static void add(Product product, RawMaterial rawMaterial, Product subAssembly, String quantity) {
+        product.getIngredients().add(ProductIngredient.builder()
+                .product(product)
+                .rawMaterial(rawMaterial)
+                .subAssembly(subAssembly)
+                .quantityRequired(new BigDecimal(quantity))
+                .build());
+    }
+}
@@ -0,0 +1,192 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ImportEvent;
+import com.projedata.productionmanager.dto.ProductResponse;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "catalog.imports.chunk-size=2")
+class CatalogImportTest {
+
+    @Autowired
+    private CatalogImportService importService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogExportService exportService;
+
+    @Autowired
+    private StockCompactor stockCompactor;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private final List<ImportEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rawMaterialService.create(new RawMaterialRequest("RM-001", "Flour", new BigDecimal("10")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Quem usa um subconjunto foi criado depois dele e precisa sair antes
+        productRepository.deleteAll(productRepository.findAll(Sort.by(Sort.Direction.DESC, "id")));
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should upsert raw materials by code in chunks and report rejected lines")
+    void shouldUpsertRawMaterialsFromCsv() {
+        String csv = """
+                code,name,stockQuantity
+                RM-001,,250
+                RM-002,"Sugar, refined",40
+
+                RM-003,,5
+                RM-004,Salt,-1
+                RM-005,Yeast,7
+                """;
+
+        ImportEvent done = importService.importRawMaterials(body(csv), CatalogFormat.CSV, events::add);
+
+        assertThat(done).isEqualTo(ImportEvent.done(5, 2, 1, 2));
+        assertThat(events).filteredOn(e -> e.event().equals("reject"))
+                .extracting(ImportEvent::line, ImportEvent::error)
+                .containsExactly(
+                        tuple(5L, "name: required for new raw material RM-003"),
+                        tuple(6L, "stockQuantity: must be greater than or equal to 0"));
+        assertThat(events).filteredOn(e -> e.event().equals("progress")).hasSize(3);
+        stockCompactor.compact();
+        assertThat(rawMaterialRepository.findByCode("RM-001")).hasValueSatisfying(r -> {
+            assertThat(r.getName()).isEqualTo("Flour");
+            assertThat(r.getStockQuantity()).isEqualByComparingTo("250");
+        });
+        assertThat(rawMaterialRepository.findByCode("RM-002")).hasValueSatisfying(r ->
+                assertThat(r.getName()).isEqualTo("Sugar, refined"));
+    }
+
+    @Test
+    @DisplayName("Should group consecutive CSV lines per product and replace existing compositions")
+    void shouldImportProductBomsFromCsv() {
+        rawMaterialService.create(new RawMaterialRequest("RM-002", "Sugar", new BigDecimal("10")));
+        String csv = """
+                productCode,productName,price,rawMaterialCode,quantityRequired
+                P-001,Bread,5.00,RM-001,2
+                P-001,Bread,5.00,RM-002,1
+                P-002,Cake,9.00,RM-404,1
+                P-003,Box,1.00,,
+                """;
+        importService.importProducts(body(csv), CatalogFormat.CSV, events::add);
+
+        String ndjson = """
+                {"code":"P-001","name":"Bread","price":6.00,"ingredients":[{"rawMaterialCode":"RM-002","quantityRequired":3}]}
+                {"code":"P-004",
+                """;
+        ImportEvent done = importService.importProducts(body(ndjson), CatalogFormat.NDJSON, events::add);
+
+        assertThat(done.updated()).isEqualTo(1);
+        assertThat(done.rejected()).isEqualTo(1);
+        assertThat(events).filteredOn(e -> e.event().equals("reject"))
+                .extracting(ImportEvent::line)
+                .containsExactly(4L, 2L);
+        ProductResponse bread = productService.findById(productRepository.findByCode("P-001").orElseThrow().getId());
+        assertThat(bread.price()).isEqualByComparingTo("6.00");
+        assertThat(bread.ingredients())
+                .extracting(i -> i.rawMaterial().code(), i -> i.quantityRequired().intValue())
+                .containsExactly(tuple("RM-002", 3));
+        assertThat(productRepository.findByCode("P-002")).isEmpty();
+        assertThat(productRepository.findByCode("P-003")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should export products in a format the import accepts back")
+    void shouldExportProductsForReimport() {
+        rawMaterialService.create(new RawMaterialRequest("RM-002", "Sugar", new BigDecimal("10")));
+        importService.importProducts(body("""
+                productCode,productName,price,rawMaterialCode,quantityRequired
+                P-001,"Bread, white",5.00,RM-001,2
+                P-001,"Bread, white",5.00,RM-002,1
+                P-002,Box,1.00,,
+                """), CatalogFormat.CSV, events::add);
+
+        String csv = export(CatalogFormat.CSV);
+        String ndjson = export(CatalogFormat.NDJSON);
+
+        assertThat(csv).isEqualTo("""
+                productCode,productName,price,rawMaterialCode,quantityRequired,subAssemblyCode
+                P-001,"Bread, white",5.00,RM-001,2.00,
+                P-001,"Bread, white",5.00,RM-002,1.00,
+                P-002,Box,1.00,,,
+                """);
+        assertThat(ndjson.lines()).hasSize(2).first().asString()
+                .contains("\"code\":\"P-001\"", "\"rawMaterialCode\":\"RM-002\"");
+        ImportEvent done = importService.importProducts(body(ndjson), CatalogFormat.NDJSON, events::add);
+        assertThat(done.updated()).isEqualTo(2);
+        assertThat(done.rejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should import sub-assemblies by code and reject compositions that close a cycle")
+    void shouldImportSubAssemblies() {
+        String csv = """
+                productCode,productName,price,rawMaterialCode,quantityRequired,subAssemblyCode
+                P-001,Dough,1.00,RM-001,2,
+                P-002,Cake,9.00,,3,P-001
+                P-003,Pie,7.00,,1,P-404
+                P-001,Dough,1.00,,1,P-002
+                """;
+
+        ImportEvent done = importService.importProducts(body(csv), CatalogFormat.CSV, events::add);
+
+        assertThat(done.created()).isEqualTo(2);
+        assertThat(events).filteredOn(e -> e.event().equals("reject"))
+                .extracting(ImportEvent::line, ImportEvent::error)
+                .containsExactly(
+                        tuple(4L, "Sub-assembly product not found with code: P-404"),
+                        tuple(5L, "Sub-assembly P-002 would create a cycle: it is or contains P-001"));
+        ProductResponse cake = productService.findById(productRepository.findByCode("P-002").orElseThrow().getId());
+        assertThat(cake.ingredients()).singleElement().satisfies(i -> {
+            assertThat(i.subAssembly().code()).isEqualTo("P-001");
+            assertThat(i.rawMaterial()).isNull();
+        });
+        assertThat(export(CatalogFormat.CSV)).contains("P-002,Cake,9.00,,3.00,P-001");
+        assertThat(export(CatalogFormat.NDJSON)).contains("{\"subAssemblyCode\":\"P-001\",\"quantityRequired\":3.00}");
+    }
+
+    private String export(CatalogFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportProducts(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.PageResponse;
+import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.ProductResponse;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class CatalogPaginationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterialResponse flour;
+    private RawMaterialResponse sugar;
+
+    @BeforeEach
+    void setUp() {
+        flour = rawMaterialService.create(new RawMaterialRequest("RM-001", "Flour", new BigDecimal("100")));
+        sugar = rawMaterialService.create(new RawMaterialRequest("RM-002", "Sugar", new BigDecimal("100")));
+        // Preços repetidos obrigam o desempate pelo código
+        for (int i = 1; i <= 7; i++) {
+            productService.create(new ProductRequest(String.format("P-%03d", i), "Product " + (8 - i),
+                    new BigDecimal(i % 3 + 1),
+                    List.of(new ProductIngredientRequest(flour.id(), BigDecimal.ONE),
+                            new ProductIngredientRequest(sugar.id(), new BigDecimal("2")))));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should walk every product exactly once following the cursor")
+    void shouldWalkAllPagesWithoutGapsOrRepeats() {
+        List<String> codes = collectCodes("price", "desc");
+
+        assertThat(codes).containsExactly("P-005", "P-002", "P-007", "P-004", "P-001", "P-006", "P-003");
+    }
+
+    @Test
+    @DisplayName("Should load ingredients with raw material code and name for each page")
+    void shouldLoadIngredientsForPage() {
+        PageResponse<ProductResponse> page = productService.findPage(
+                PageQuery.of(null, 2, null, "code", "asc", ProductService.SORTABLE_FIELDS));
+
+        assertThat(page.items()).extracting(ProductResponse::code).containsExactly("P-001", "P-002");
+        assertThat(page.nextCursor()).isEqualTo("P-002");
+        assertThat(page.items().getFirst().ingredients())
+                .extracting(i -> i.rawMaterial().code(), i -> i.rawMaterial().name())
+                .containsExactly(tuple("RM-001", "Flour"), tuple("RM-002", "Sugar"));
+    }
+
+    @Test
+    @DisplayName("Should filter by code or name prefix ignoring case")
+    void shouldFilterByPrefix() {
+        PageResponse<ProductResponse> byName = productService.findPage(
+                PageQuery.of(null, 50, "product 1", "name", "asc", ProductService.SORTABLE_FIELDS));
+        PageResponse<RawMaterialResponse> byCode = rawMaterialService.findPage(
+                PageQuery.of(null, 50, "rm-002", "code", "asc", RawMaterialService.SORTABLE_FIELDS));
+
+        assertThat(byName.items()).extracting(ProductResponse::code).containsExactly("P-007");
+        assertThat(byName.nextCursor()).isNull();
+        assertThat(byCode.items()).extracting(RawMaterialResponse::name).containsExactly("Sugar");
+    }
+
+    @Test
+    @DisplayName("Should reject invalid limits, sort fields and unknown cursors")
+    void shouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> PageQuery.of(null, 0, null, "code", "asc", ProductService.SORTABLE_FIELDS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageQuery.of(null, 10, null, "stockQuantity", "asc", ProductService.SORTABLE_FIELDS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.findPage(
+                PageQuery.of("P-999", 10, null, "price", "asc", ProductService.SORTABLE_FIELDS)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown cursor");
+    }
+
+    private List<String> collectCodes(String sort, String direction) {
+        List<String> codes = new ArrayList<>();
+        String after = null;
+        do {
+            PageResponse<ProductResponse> page = productService.findPage(
+                    PageQuery.of(after, 3, null, sort, direction, ProductService.SORTABLE_FIELDS));
+            page.items().forEach(p -> codes.add(p.code()));
+            after = page.nextCursor();
+        } while (after != null);
+        return codes;
+    }
+}
@@ -0,0 +1,153 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogSnapshotService service;
+
+    private RawMaterial flour;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CatalogSnapshotService(productRepository, rawMaterialRepository, meterRegistry);
+        flour = new RawMaterial(1L, "RM-001", "Flour", new BigDecimal("1000"), 0L);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the same snapshot without querying again")
+    void shouldServeRepeatedReadsFromSnapshot() {
+        when(productRepository.findAllWithIngredients()).thenReturn(List.of(product(1L, "10.00")));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(flour));
+
+        CatalogSnapshot first = service.current();
+        CatalogSnapshot second = service.current();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.product(1L)).isPresent();
+        assertThat(first.rawMaterial(1L)).contains(flour);
+        verify(productRepository, times(1)).findAllWithIngredients();
+        verify(rawMaterialRepository, times(1)).findAll();
+        assertThat(meterRegistry.get("catalog.snapshot.load").tag("phase", "query").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("catalog.snapshot.load").tag("phase", "compile").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload with a higher version after a committed change")
+    void shouldReloadAfterChange() {
+        when(productRepository.findAllWithIngredients())
+                .thenReturn(List.of(product(1L, "10.00")))
+                .thenReturn(List.of(product(1L, "10.00"), product(2L, "20.00")));
+
+        CatalogSnapshot before = service.current();
+        service.onCatalogChanged(CatalogChangedEvent.product(2L));
+        CatalogSnapshot after = service.current();
+
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.products()).hasSize(2);
+        assertThat(after.productsByPrice().get(0).getId()).isEqualTo(2L);
+        verify(productRepository, times(2)).findAllWithIngredients();
+    }
+
+    @Test
+    @DisplayName("Should patch only the changed raw material instead of reloading the whole catalog")
+    void shouldPatchChangedRawMaterial() {
+        Product cake = product(1L, "10.00");
+        cake.getIngredients().add(new ProductIngredient(1L, cake, flour, new BigDecimal("100")));
+        when(productRepository.findAllWithIngredients()).thenReturn(List.of(cake));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(flour));
+
+        CatalogSnapshot before = service.current();
+
+        RawMaterial restocked = new RawMaterial(1L, "RM-001", "Flour", new BigDecimal("2000"), 1L);
+        when(rawMaterialRepository.findAllById(Set.of(1L))).thenReturn(List.of(restocked));
+        service.onCatalogChanged(CatalogChangedEvent.rawMaterial(1L));
+        CatalogSnapshot after = service.current();
+
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.rawMaterial(1L)).contains(restocked);
+        assertThat(after.product(1L).orElseThrow().getIngredients().get(0).getRawMaterial()).isSameAs(restocked);
+        assertThat(before.product(1L).orElseThrow().getIngredients().get(0).getRawMaterial()).isSameAs(flour);
+        assertThat(after.compiled().sharesStructureWith(before.compiled())).isTrue();
+        assertThat(after.compiled().greedy(after.compiled().stock())).containsExactly(20);
+        verify(productRepository, times(1)).findAllWithIngredients();
+    }
+
+    @Test
+    @DisplayName("Should keep the pending raw material when the patch query fails and apply it on the next read")
+    void shouldRetryPatchAfterFailedReload() {
+        Product cake = product(1L, "10.00");
+        cake.getIngredients().add(new ProductIngredient(1L, cake, flour, new BigDecimal("100")));
+        when(productRepository.findAllWithIngredients()).thenReturn(List.of(cake));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(flour));
+        CatalogSnapshot before = service.current();
+
+        RawMaterial restocked = new RawMaterial(1L, "RM-001", "Flour", new BigDecimal("2000"), 1L);
+        when(rawMaterialRepository.findAllById(Set.of(1L)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of(restocked));
+        service.onCatalogChanged(CatalogChangedEvent.rawMaterial(1L));
+
+        assertThatThrownBy(service::current).isInstanceOf(QueryTimeoutException.class);
+        assertThat(service.peek()).isSameAs(before);
+
+        CatalogSnapshot after = service.current();
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.rawMaterial(1L)).contains(restocked);
+        verify(rawMaterialRepository, times(2)).findAllById(Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should keep the full reload pending when the catalog query fails")
+    void shouldRetryFullReloadAfterFailure() {
+        when(productRepository.findAllWithIngredients())
+                .thenReturn(List.of(product(1L, "10.00")))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of(product(1L, "10.00"), product(2L, "20.00")));
+        CatalogSnapshot before = service.current();
+        service.onCatalogChanged(CatalogChangedEvent.product(2L));
+
+        assertThatThrownBy(service::current).isInstanceOf(QueryTimeoutException.class);
+
+        CatalogSnapshot after = service.current();
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.products()).hasSize(2);
+        verify(productRepository, times(3)).findAllWithIngredients();
+    }
+
+    private Product product(Long id, String price) {
+        return new Product(id, "P-" + id, "Product " + id, new BigDecimal(price), new ArrayList<>());
+    }
+}
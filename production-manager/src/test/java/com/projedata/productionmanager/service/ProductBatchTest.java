@@ -0,0 +1,87 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductBatchItemResult;
+import com.projedata.productionmanager.dto.ProductBatchRequest;
+import com.projedata.productionmanager.dto.ProductBatchResponse;
+import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductBatchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterialResponse flour;
+
+    @BeforeEach
+    void setUp() {
+        flour = rawMaterialService.create(new RawMaterialRequest("RM-001", "Flour", new BigDecimal("100")));
+        productService.create(new ProductRequest("P-EXISTING", "Existing", BigDecimal.TEN, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should create every valid product and report each invalid one by index")
+    void shouldReportPerItemErrors() {
+        List<ProductRequest> items = new ArrayList<>();
+        items.add(product("P-001", flour.id()));
+        items.add(product("P-EXISTING", flour.id()));
+        items.add(product("P-001", flour.id()));
+        items.add(product("P-002", 999L));
+        items.add(new ProductRequest("P-003", "", new BigDecimal("0.00"), List.of()));
+        items.add(product("P-004", flour.id()));
+
+        ProductBatchResponse response = productService.createBatch(new ProductBatchRequest(items));
+
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(4);
+        assertThat(response.results()).extracting(ProductBatchItemResult::error).containsExactly(
+                null,
+                "Product already exists with code: P-EXISTING",
+                "Duplicate code in batch: P-001",
+                "Raw material not found with id: 999",
+                "name: must not be blank; price: must be greater than or equal to 0.01",
+                null);
+        assertThat(response.results().get(5).id()).isNotNull();
+        assertThat(productService.findById(response.results().get(0).id()).ingredients())
+                .singleElement()
+                .satisfies(i -> assertThat(i.rawMaterial().code()).isEqualTo("RM-001"));
+        assertThat(productRepository.count()).isEqualTo(3);
+    }
+
+    private ProductRequest product(String code, Long rawMaterialId) {
+        return new ProductRequest(code, "Product " + code, BigDecimal.ONE,
+                List.of(new ProductIngredientRequest(rawMaterialId, BigDecimal.ONE)));
+    }
+}
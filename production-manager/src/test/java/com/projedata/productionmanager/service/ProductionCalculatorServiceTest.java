@@ -1,23 +1,43 @@
 package com.projedata.productionmanager.service;
 
+import com.projedata.productionmanager.config.ProductionProperties;
+import com.projedata.productionmanager.dto.ProductionScenarioRequest;
+import com.projedata.productionmanager.dto.ProductionScenariosRequest;
+import com.projedata.productionmanager.dto.ProductionScenariosResponse;
+import com.projedata.productionmanager.dto.ProductionPresolveStats;
 import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.dto.SolverComparisonEntry;
+import com.projedata.productionmanager.dto.SolverComparisonResponse;
 import com.projedata.productionmanager.entity.Product;
 import com.projedata.productionmanager.entity.ProductIngredient;
 import com.projedata.productionmanager.entity.RawMaterial;
 import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +46,11 @@ class ProductionCalculatorServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogSnapshotService catalogSnapshotService;
     private ProductionCalculatorService service;
 
     private RawMaterial flour;
@@ -34,6 +58,9 @@ class ProductionCalculatorServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalogSnapshotService = new CatalogSnapshotService(productRepository, rawMaterialRepository, meterRegistry);
+        service = serviceWith(new ProductionProperties.Decomposition(true, 5000));
         flour = buildRawMaterial(1L, "RM-001", "Flour", new BigDecimal("1000"));
         sugar = buildRawMaterial(2L, "RM-002", "Sugar", new BigDecimal("500"));
     }
@@ -176,8 +203,345 @@ class ProductionCalculatorServiceTest {
         assertThat(response.grandTotal()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
+    @Test
+    @DisplayName("Should fall back to BigDecimal arithmetic when quantities overflow fixed-point")
+    void shouldFallBackWhenQuantitiesOverflowFixedPoint() {
+        RawMaterial huge = buildRawMaterial(7L, "RM-007", "Huge", new BigDecimal("100000000000000000000"));
+
+        Product product = buildProduct(1L, "P-001", "Bulk", new BigDecimal("1.00"));
+        addIngredient(product, huge, new BigDecimal("20000000000000000000"));
+
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(List.of(product)));
+
+        ProductionSuggestionResponse response = service.calculate();
+
+        assertThat(response.items()).hasSize(1);
+        assertThat(response.items().get(0).quantity()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should recompute incrementally after a raw material stock change")
+    void shouldRecomputeIncrementallyAfterStockChange() {
+        Product productA = buildProduct(1L, "P-001", "Cake", new BigDecimal("50.00"));
+        addIngredient(productA, sugar, new BigDecimal("100"));
+
+        Product productB = buildProduct(2L, "P-002", "Cookie", new BigDecimal("30.00"));
+        addIngredient(productB, flour, new BigDecimal("200"));
+
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(List.of(productA, productB)));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(flour, sugar));
+
+        ProductionSuggestionResponse before = service.calculate();
+        assertThat(service.calculate()).isSameAs(before);
+
+        RawMaterial moreFlour = buildRawMaterial(1L, "RM-001", "Flour", new BigDecimal("1400"));
+        when(rawMaterialRepository.findAllById(Set.of(1L))).thenReturn(List.of(moreFlour));
+        catalogSnapshotService.onCatalogChanged(CatalogChangedEvent.rawMaterial(1L));
+
+        ProductionSuggestionResponse after = service.calculate();
+
+        // A (açúcar) não é afetado: 5 unidades; B (farinha): 1400/200 = 7 unidades
+        assertThat(after.items()).extracting(i -> i.quantity()).containsExactly(5, 7);
+        assertThat(after.grandTotal()).isEqualByComparingTo(new BigDecimal("460.00"));
+        // O caminho incremental também traz as contagens do presolve
+        assertThat(after.presolve()).isEqualTo(new ProductionPresolveStats(2, 0, 0, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight calculation among concurrent calls for the same catalog version")
+    void shouldCoalesceConcurrentCalculations() throws Exception {
+        Product cake = buildProduct(1L, "P-001", "Cake", new BigDecimal("50.00"));
+        addIngredient(cake, flour, new BigDecimal("100"));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findAllWithIngredients()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return new ArrayList<>(List.of(cake));
+        });
+
+        List<Future<ProductionSuggestionResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+            futures.add(executor.submit(() -> service.calculate()));
+            loading.await();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> service.calculate()));
+            }
+            while (meterRegistry.counter("production.suggestion.calls", "outcome", "coalesced", "mode", "greedy")
+                    .count() < 4) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            ProductionSuggestionResponse first = futures.getFirst().get();
+            for (Future<ProductionSuggestionResponse> future : futures) {
+                assertThat(future.get()).isSameAs(first);
+            }
+        }
+
+        verify(productRepository, times(1)).findAllWithIngredients();
+        assertThat(meterRegistry.counter("production.suggestion.calls", "outcome", "computed", "mode", "greedy")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evaluate what-if scenarios against the same snapshot with deltas")
+    void shouldEvaluateScenariosWithDeltas() {
+        Product cake = buildProduct(1L, "P-001", "Cake", new BigDecimal("50.00"));
+        addIngredient(cake, flour, new BigDecimal("100"));
+
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(List.of(cake)));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(flour, sugar));
+
+        ProductionScenariosResponse response = service.calculateScenarios(new ProductionScenariosRequest(null, null, List.of(
+                new ProductionScenarioRequest("more flour", Map.of(1L, new BigDecimal("1500"))),
+                new ProductionScenarioRequest("supplier fails", Map.of(1L, BigDecimal.ZERO))
+        )));
+
+        // Base: 1000/100 = 10 bolos (500,00)
+        assertThat(response.baseline().grandTotal()).isEqualByComparingTo(new BigDecimal("500.00"));
+        assertThat(response.scenarios()).hasSize(2);
+        assertThat(response.scenarios().get(0).suggestion().grandTotal()).isEqualByComparingTo(new BigDecimal("750.00"));
+        assertThat(response.scenarios().get(0).grandTotalDelta()).isEqualByComparingTo(new BigDecimal("250.00"));
+        assertThat(response.scenarios().get(1).suggestion().items()).isEmpty();
+        assertThat(response.scenarios().get(1).grandTotalDelta()).isEqualByComparingTo(new BigDecimal("-500.00"));
+        verify(productRepository, times(1)).findAllWithIngredients();
+    }
+
+    @Test
+    @DisplayName("Should reject scenarios that override an unknown raw material")
+    void shouldRejectScenarioWithUnknownRawMaterial() {
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>());
+
+        assertThatThrownBy(() -> service.calculateScenarios(new ProductionScenariosRequest(null, null, List.of(
+                new ProductionScenarioRequest("ghost", Map.of(99L, BigDecimal.ONE))))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Optimal mode should beat greedy when a cheaper product uses the scarce material better")
+    void optimalModeShouldBeatGreedy() {
+        // Estoque: 10 de material. A usa 6 e vale 10; B usa 5 e vale 6.
+        // Greedy: 1 A (10,00). Ótimo: 2 B (12,00).
+        RawMaterial scarce = buildRawMaterial(6L, "RM-006", "Scarce", new BigDecimal("10"));
+
+        Product productA = buildProduct(1L, "P-001", "ProductA", new BigDecimal("10.00"));
+        addIngredient(productA, scarce, new BigDecimal("6"));
+
+        Product productB = buildProduct(2L, "P-002", "ProductB", new BigDecimal("6.00"));
+        addIngredient(productB, scarce, new BigDecimal("5"));
+
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(List.of(productA, productB)));
+
+        ProductionSuggestionResponse response = service.calculate(SolverMode.OPTIMAL, 1000L);
+
+        assertThat(response.items()).hasSize(1);
+        assertThat(response.items().get(0).productCode()).isEqualTo("P-002");
+        assertThat(response.items().get(0).quantity()).isEqualTo(2);
+        assertThat(response.grandTotal()).isEqualByComparingTo(new BigDecimal("12.00"));
+        assertThat(response.optimalityGap()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Local search should improve on the greedy plan and report the gain")
+    void localSearchShouldImproveOnGreedy() {
+        RawMaterial scarce = buildRawMaterial(6L, "RM-006", "Scarce", new BigDecimal("10"));
+        Product productA = buildProduct(1L, "P-001", "ProductA", new BigDecimal("10.00"));
+        addIngredient(productA, scarce, new BigDecimal("6"));
+        Product productB = buildProduct(2L, "P-002", "ProductB", new BigDecimal("6.00"));
+        addIngredient(productB, scarce, new BigDecimal("5"));
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(List.of(productA, productB)));
+
+        ProductionSuggestionResponse response = service.calculate(SolverMode.GREEDY, null, 200L);
+
+        assertThat(response.items()).singleElement().satisfies(item -> {
+            assertThat(item.productCode()).isEqualTo("P-002");
+            assertThat(item.quantity()).isEqualTo(2);
+        });
+        assertThat(response.improvement().greedyTotal()).isEqualByComparingTo("10.00");
+        assertThat(response.improvement().gain()).isEqualByComparingTo("2.00");
+        assertThat(response.improvement().acceptedMoves()).isPositive();
+        assertThatThrownBy(() -> service.calculate(SolverMode.OPTIMAL, null, 200L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should solve with any registered solver by name and reject unknown names")
+    void shouldSolveWithNamedSolver() {
+        Product productA = buildProduct(1L, "P-001", "Cake", new BigDecimal("50.00"));
+        addIngredient(productA, flour, new BigDecimal("300"));
+        Product productB = buildProduct(2L, "P-002", "Cookie", new BigDecimal("30.00"));
+        addIngredient(productB, flour, new BigDecimal("200"));
+        addIngredient(productB, sugar, new BigDecimal("50"));
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(List.of(productA, productB)));
+
+        ProductionSuggestionResponse greedy = service.calculate();
+        ProductionSuggestionResponse decimal = service.calculate("decimal", null);
+
+        assertThat(service.solverNames()).containsExactly("decimal", "greedy", "local-search", "optimal");
+        assertThat(decimal.items()).isEqualTo(greedy.items());
+        assertThat(decimal.grandTotal()).isEqualByComparingTo(greedy.grandTotal());
+        assertThatThrownBy(() -> service.calculate("simplex", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("simplex");
+    }
+
+    @Test
+    @DisplayName("Should compare every registered solver on the same catalog version")
+    void shouldCompareSolvers() {
+        RawMaterial scarce = buildRawMaterial(6L, "RM-006", "Scarce", new BigDecimal("10"));
+        Product productA = buildProduct(1L, "P-001", "ProductA", new BigDecimal("10.00"));
+        addIngredient(productA, scarce, new BigDecimal("6"));
+        Product productB = buildProduct(2L, "P-002", "ProductB", new BigDecimal("6.00"));
+        addIngredient(productB, scarce, new BigDecimal("5"));
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(List.of(productA, productB)));
+        ProductionSuggestionResponse suggestion = service.calculate();
+
+        SolverComparisonResponse comparison = service.compareSolvers(200L);
+
+        assertThat(comparison.budgetMs()).isEqualTo(200L);
+        assertThat(comparison.results()).extracting(SolverComparisonEntry::solver)
+                .containsExactly("decimal", "greedy", "local-search", "optimal");
+        Map<String, BigDecimal> totals = new HashMap<>();
+        comparison.results().forEach(entry -> {
+            assertThat(entry.error()).isNull();
+            assertThat(entry.wallTimeMicros()).isNotNegative();
+            if (entry.allocatedBytes() != null) {
+                assertThat(entry.allocatedBytes()).isNotNegative();
+            }
+            totals.put(entry.solver(), entry.grandTotal());
+        });
+        // As cópias da comparação não substituem o greedy guardado do snapshot corrente
+        assertThat(service.calculate()).isSameAs(suggestion);
+        assertThat(totals.get("greedy")).isEqualByComparingTo("10.00");
+        assertThat(totals.get("decimal")).isEqualByComparingTo("10.00");
+        assertThat(totals.get("local-search")).isEqualByComparingTo("12.00");
+        assertThat(totals.get("optimal")).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    @DisplayName("Optimal mode should match exhaustive search on small random catalogs")
+    void optimalModeShouldMatchExhaustiveSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 30; round++) {
+            List<RawMaterial> materials = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                materials.add(buildRawMaterial((long) i, "RM-" + i, "M" + i, BigDecimal.valueOf(5 + random.nextInt(20))));
+            }
+            List<Product> products = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                Product product = buildProduct((long) j, "P-" + j, "P" + j, BigDecimal.valueOf(1 + random.nextInt(50)));
+                for (RawMaterial material : materials) {
+                    if (random.nextInt(3) > 0) {
+                        addIngredient(product, material, BigDecimal.valueOf(1 + random.nextInt(8)));
+                    }
+                }
+                products.add(product);
+            }
+            when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(products));
+            catalogSnapshotService.onCatalogChanged(CatalogChangedEvent.product(null));
+
+            ProductionSuggestionResponse response = service.calculate(SolverMode.OPTIMAL, 1000L);
+
+            assertThat(response.grandTotal()).isEqualByComparingTo(bruteForce(products, materials));
+            assertThat(response.optimalityGap()).isEqualByComparingTo(BigDecimal.ZERO);
+        }
+    }
+
+    @Test
+    @DisplayName("Should solve independent product families in parallel with the same answer as a serial pass")
+    void shouldSolveIndependentComponentsInParallel() {
+        ProductionCalculatorService parallel = serviceWith(new ProductionProperties.Decomposition(true, 1));
+        ProductionCalculatorService serial = serviceWith(new ProductionProperties.Decomposition(false, 1));
+        Random random = new Random(5);
+        List<Product> products = new ArrayList<>();
+        for (int family = 0; family < 20; family++) {
+            RawMaterial shared = buildRawMaterial(100L + family, "RM-S" + family, "S" + family,
+                    BigDecimal.valueOf(10 + random.nextInt(40)));
+            RawMaterial own = buildRawMaterial(200L + family, "RM-O" + family, "O" + family,
+                    BigDecimal.valueOf(10 + random.nextInt(40)));
+            for (int j = 0; j < 3; j++) {
+                long id = family * 3L + j;
+                Product product = buildProduct(id, "P-" + id, "P" + id, BigDecimal.valueOf(1 + random.nextInt(50)));
+                addIngredient(product, shared, BigDecimal.valueOf(1 + random.nextInt(6)));
+                if (j == 0) {
+                    addIngredient(product, own, BigDecimal.valueOf(1 + random.nextInt(6)));
+                }
+                products.add(product);
+            }
+        }
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>(products));
+
+        assertThat(parallel.calculate()).isEqualTo(serial.calculate());
+        ProductionSuggestionResponse optimal = parallel.calculate(SolverMode.OPTIMAL, 2000L);
+        ProductionSuggestionResponse reference = serial.calculate(SolverMode.OPTIMAL, 2000L);
+        assertThat(optimal.grandTotal()).isEqualByComparingTo(reference.grandTotal());
+        assertThat(optimal.optimalityGap()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Greedy mode should not report an optimality gap")
+    void greedyModeShouldNotReportGap() {
+        when(productRepository.findAllWithIngredients()).thenReturn(new ArrayList<>());
+
+        assertThat(service.calculate().optimalityGap()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive time budget in optimal mode")
+    void shouldRejectNonPositiveBudget() {
+        assertThatThrownBy(() -> service.calculate(SolverMode.OPTIMAL, 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Validado antes de carregar o catálogo
+        verify(productRepository, times(0)).findAllWithIngredients();
+    }
+
     // --- Auxiliares ---
 
+    private ProductionCalculatorService serviceWith(ProductionProperties.Decomposition decomposition) {
+        ProductionProperties properties = new ProductionProperties(new ProductionProperties.Optimal(500, 5000),
+                new ProductionProperties.Scenarios(2, 10),
+                new ProductionProperties.Execution(5),
+                new ProductionProperties.Jobs(2, 32, 600_000, 1000),
+                new ProductionProperties.Materialization(false, 250, 2000),
+                decomposition,
+                new ProductionProperties.Solvers("greedy", "optimal"));
+        ComponentExecutor executor = new ComponentExecutor(properties, ForkJoinPool.commonPool());
+        GreedySolver greedy = new GreedySolver(executor, new DecimalGreedySolver(), catalogSnapshotService);
+        ProductionSolverRegistry registry = new ProductionSolverRegistry(List.of(greedy, new DecimalGreedySolver(),
+                new OptimalSolver(executor), new LocalSearchSolver(greedy)), properties);
+        return new ProductionCalculatorService(catalogSnapshotService, properties, registry, executor, meterRegistry);
+    }
+
+    private BigDecimal bruteForce(List<Product> products, List<RawMaterial> materials) {
+        return bruteForce(products, 0, materials.stream().map(RawMaterial::getStockQuantity).toArray(BigDecimal[]::new));
+    }
+
+    private BigDecimal bruteForce(List<Product> products, int index, BigDecimal[] stock) {
+        if (index == products.size()) {
+            return BigDecimal.ZERO;
+        }
+        Product product = products.get(index);
+        BigDecimal best = bruteForce(products, index + 1, stock);
+        if (product.getIngredients().isEmpty()) {
+            return best;
+        }
+        for (int units = 1; ; units++) {
+            BigDecimal[] remaining = stock.clone();
+            boolean feasible = true;
+            for (ProductIngredient ingredient : product.getIngredients()) {
+                int material = ingredient.getRawMaterial().getId().intValue();
+                remaining[material] = remaining[material].subtract(ingredient.getQuantityRequired().multiply(BigDecimal.valueOf(units)));
+                feasible &= remaining[material].signum() >= 0;
+            }
+            if (!feasible) {
+                return best;
+            }
+            BigDecimal value = product.getPrice().multiply(BigDecimal.valueOf(units)).add(bruteForce(products, index + 1, remaining));
+            best = best.max(value);
+        }
+    }
+
+
     private RawMaterial buildRawMaterial(Long id, String code, String name, BigDecimal stock) {
         RawMaterial rm = new RawMaterial();
         rm.setId(id);
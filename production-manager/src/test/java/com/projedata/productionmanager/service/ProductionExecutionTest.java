@@ -0,0 +1,133 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.ProductResponse;
+import com.projedata.productionmanager.dto.ProductionExecutionRequest;
+import com.projedata.productionmanager.dto.ProductionExecutionResponse;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.exception.InsufficientStockException;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class ProductionExecutionTest {
+
+    @Autowired
+    private ProductionExecutionService executionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private StockCompactor stockCompactor;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterialResponse flour;
+    private RawMaterialResponse sugar;
+    private ProductResponse bread;
+    private ProductResponse cake;
+
+    @BeforeEach
+    void setUp() {
+        flour = rawMaterialService.create(new RawMaterialRequest("RM-001", "Flour", new BigDecimal("16")));
+        sugar = rawMaterialService.create(new RawMaterialRequest("RM-002", "Sugar", new BigDecimal("3")));
+        bread = productService.create(new ProductRequest("P-001", "Bread", new BigDecimal("5"),
+                List.of(new ProductIngredientRequest(flour.id(), new BigDecimal("2")))));
+        cake = productService.create(new ProductRequest("P-002", "Cake", new BigDecimal("9"),
+                List.of(new ProductIngredientRequest(flour.id(), new BigDecimal("1")),
+                        new ProductIngredientRequest(sugar.id(), new BigDecimal("1.5")))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should deduct the combined requirement of every product in one transaction")
+    void shouldDeductStockForWholePlan() {
+        ProductionExecutionResponse response = executionService.execute(
+                new ProductionExecutionRequest(Map.of(bread.id(), 3, cake.id(), 2)));
+
+        assertThat(response.attempts()).isEqualTo(1);
+        assertThat(response.consumed())
+                .extracting(c -> c.rawMaterialCode(), c -> c.consumed().intValue(), c -> c.remaining().intValue())
+                .containsExactly(tuple("RM-001", 8, 8), tuple("RM-002", 3, 0));
+        // Visível no catálogo em memória já no commit, sem rodada do compactador
+        assertThat(rawMaterialService.findById(flour.id()).stockQuantity()).isEqualByComparingTo("8");
+        assertThat(stockCompactor.compact()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject the whole plan without touching stock when any material is short")
+    void shouldRollBackOnShortage() {
+        assertThatThrownBy(() -> executionService.execute(
+                new ProductionExecutionRequest(Map.of(bread.id(), 1, cake.id(), 3))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("RM-002 (required 4.5, available 3)");
+
+        assertThat(rawMaterialService.findById(flour.id()).stockQuantity()).isEqualByComparingTo("16");
+        assertThatThrownBy(() -> executionService.execute(new ProductionExecutionRequest(Map.of(999L, 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should never overdraw stock under concurrent executions")
+    void shouldStayConsistentUnderConcurrency() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(6)) {
+            for (int i = 0; i < 12; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        executionService.execute(new ProductionExecutionRequest(Map.of(bread.id(), 1)));
+                        succeeded.incrementAndGet();
+                    } catch (InsufficientStockException | OptimisticLockingFailureException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        stockCompactor.compact();
+        BigDecimal remaining = rawMaterialRepository.findById(flour.id()).orElseThrow().getStockQuantity();
+        assertThat(succeeded.get() + rejected.get()).isEqualTo(12);
+        assertThat(succeeded.get()).isPositive().isLessThanOrEqualTo(8);
+        assertThat(remaining).isEqualByComparingTo(BigDecimal.valueOf(16 - 2L * succeeded.get()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.ProductionJobRequest;
+import com.projedata.productionmanager.dto.ProductionJobResponse;
+import com.projedata.productionmanager.dto.ProductionJobResponse.Status;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"production.jobs.pool-size=1", "production.jobs.queue-capacity=1"})
+class ProductionJobTest {
+
+    @Autowired
+    private ProductionJobService jobService;
+
+    @Autowired
+    private ThreadPoolExecutor productionJobExecutor;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @BeforeEach
+    void setUp() {
+        RawMaterialResponse flour = rawMaterialService.create(
+                new RawMaterialRequest("RM-001", "Flour", new BigDecimal("10")));
+        productService.create(new ProductRequest("P-001", "Bread", new BigDecimal("5"),
+                List.of(new ProductIngredientRequest(flour.id(), new BigDecimal("2")))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should run a queued job and keep its result for polling")
+    void shouldCompleteJob() throws Exception {
+        ProductionJobResponse submitted = jobService.submit(null);
+
+        ProductionJobResponse done = await(submitted.id());
+
+        assertThat(done.status()).isEqualTo(Status.DONE);
+        assertThat(done.mode()).isEqualTo("greedy");
+        assertThat(done.completedAt()).isNotNull();
+        assertThat(done.result().grandTotal()).isEqualByComparingTo("25");
+    }
+
+    @Test
+    @DisplayName("Should deduplicate identical pending jobs, bound the queue and cancel queued jobs")
+    void shouldDeduplicateAndCancel() throws Exception {
+        ProductionJobResponse first;
+        ProductionJobResponse resubmitted;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        productionJobExecutor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            // Enquanto o bloqueador não sai da fila, ela já está cheia e o primeiro envio seria recusado
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            // Orçamentos diferentes acima do limite chegam ao mesmo orçamento efetivo
+            first = jobService.submit(new ProductionJobRequest("optimal", 60_000L));
+            ProductionJobResponse second = jobService.submit(new ProductionJobRequest("OPTIMAL", 90_000L));
+            assertThat(second.id()).isEqualTo(first.id());
+            assertThat(second.status()).isEqualTo(Status.QUEUED);
+            assertThat(second.budgetMs()).isEqualTo(5000L);
+            assertThatThrownBy(() -> jobService.submit(new ProductionJobRequest("greedy", null)))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            assertThat(jobService.cancel(first.id()).status()).isEqualTo(Status.CANCELLED);
+            resubmitted = jobService.submit(new ProductionJobRequest("optimal", 100L));
+            assertThat(resubmitted.id()).isNotEqualTo(first.id());
+        } finally {
+            release.countDown();
+        }
+        assertThat(await(resubmitted.id()).status()).isEqualTo(Status.DONE);
+        assertThat(jobService.find(first.id()).status()).isEqualTo(Status.CANCELLED);
+        assertThatThrownBy(() -> jobService.find("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ProductionJobResponse await(String id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ProductionJobResponse job = jobService.find(id);
+            if (job.status() != Status.QUEUED && job.status() != Status.RUNNING) {
+                return job;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Job did not finish: " + id);
+    }
+}
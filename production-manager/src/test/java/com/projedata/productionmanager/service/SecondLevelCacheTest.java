@@ -0,0 +1,94 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sem recálculos da sugestão em segundo plano contando nas estatísticas
+@SpringBootTest(properties = "production.materialization.enabled=false")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockCompactor stockCompactor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private RawMaterialResponse flour;
+
+    @BeforeEach
+    void setUp() {
+        // As regiões do Caffeine são compartilhadas entre os contextos de teste, que reaproveitam os mesmos ids
+        entityManagerFactory.getCache().evictAll();
+        flour = rawMaterialService.create(new RawMaterialRequest("RM-001", "Flour", new BigDecimal("10")));
+        // Esvazia as pendências de testes anteriores para que o compactador não entre nas estatísticas
+        stockCompactor.compact();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should answer repeated code lookups from the query and entity caches")
+    void shouldServeRepeatedLookupsFromCache() {
+        long statements = statistics.getPrepareStatementCount();
+        for (int i = 0; i < 4; i++) {
+            assertThat(rawMaterialRepository.findByCode("RM-001")).isPresent();
+            assertThat(rawMaterialRepository.existsByCode("RM-001")).isTrue();
+        }
+        assertThat(rawMaterialRepository.findAllByIdCached(List.of(flour.id(), 999L))).hasSize(1);
+
+        // Um resultado gravado no mesmo instante do insert é descartado: no pior caso cada consulta vai duas vezes ao banco
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(4);
+        assertThat(statistics.getPrepareStatementCount() - statements).isLessThanOrEqualTo(5);
+        // O id existente sai da região de entidades; o inexistente vai ao banco
+        assertThat(statistics.getDomainDataRegionStatistics("raw-materials").getHitCount()).isEqualTo(1);
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "raw-materials").meter()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not serve stale entries after an update")
+    void shouldInvalidateOnUpdate() {
+        rawMaterialRepository.findByCode("RM-001");
+
+        rawMaterialService.update(flour.id(), new RawMaterialRequest("RM-001", "Flour", new BigDecimal("25")));
+        stockCompactor.compact();
+
+        assertThat(rawMaterialRepository.findByCode("RM-001")).hasValueSatisfying(r ->
+                assertThat(r.getStockQuantity()).isEqualByComparingTo("25"));
+    }
+}
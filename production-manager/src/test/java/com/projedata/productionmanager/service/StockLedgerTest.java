@@ -0,0 +1,161 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.dto.StockMovementRequest;
+import com.projedata.productionmanager.dto.StockMovementResponse;
+import com.projedata.productionmanager.entity.StockMovement;
+import com.projedata.productionmanager.exception.InsufficientStockException;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class StockLedgerTest {
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    @Autowired
+    private StockCompactor stockCompactor;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterialResponse flour;
+
+    @BeforeEach
+    void setUp() {
+        flour = rawMaterialService.create(new RawMaterialRequest("RM-001", "Flour", new BigDecimal("10")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should accept concurrent receipts without conflicts and fold them into the snapshot")
+    void shouldAppendConcurrentReceiptsWithoutConflicts() throws Exception {
+        List<Future<StockMovementResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(() -> stockLedger.record(flour.id(),
+                        new StockMovementRequest(new BigDecimal("0.5"), StockMovement.Reason.RECEIPT))));
+            }
+            for (Future<StockMovementResponse> future : futures) {
+                assertThat(future.get().compacted()).isFalse();
+            }
+        }
+
+        StockMovementResponse last = stockLedger.record(flour.id(),
+                new StockMovementRequest(new BigDecimal("-5"), StockMovement.Reason.CONSUMPTION));
+        assertThat(last.stockQuantity()).isEqualByComparingTo("25");
+
+        stockCompactor.compact();
+        assertThat(rawMaterialService.findById(flour.id()).stockQuantity()).isEqualByComparingTo("25");
+        assertThat(stockLedger.history(flour.id(), 100)).hasSize(42)
+                .allSatisfy(m -> assertThat(m.compacted()).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should record absolute stock edits as adjustments visible right after the write")
+    void shouldRecordUpdatesAsAdjustments() {
+        stockLedger.record(flour.id(), new StockMovementRequest(new BigDecimal("2"), StockMovement.Reason.RECEIPT));
+
+        rawMaterialService.update(flour.id(), new RawMaterialRequest("RM-001", "Flour", new BigDecimal("4")));
+
+        assertThat(rawMaterialService.findById(flour.id()).stockQuantity()).isEqualByComparingTo("4");
+        assertThat(stockLedger.history(flour.id(), null))
+                .extracting(StockMovementResponse::reason, m -> m.delta().intValue(), StockMovementResponse::compacted)
+                .containsExactly(tuple(StockMovement.Reason.ADJUSTMENT, -8, true),
+                        tuple(StockMovement.Reason.RECEIPT, 2, true), tuple(StockMovement.Reason.RECEIPT, 10, true));
+        assertThat(stockCompactor.compact()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should let the last of concurrent absolute stock edits win")
+    void shouldSerializeConcurrentUpdates() throws Exception {
+        List<Future<RawMaterialResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                BigDecimal target = BigDecimal.valueOf(100 + i);
+                futures.add(executor.submit(() -> rawMaterialService.update(flour.id(),
+                        new RawMaterialRequest("RM-001", "Flour", target))));
+            }
+            for (Future<RawMaterialResponse> future : futures) {
+                future.get();
+            }
+        }
+        stockCompactor.compact();
+
+        BigDecimal stock = rawMaterialService.findById(flour.id()).stockQuantity();
+        assertThat(stock).isBetween(new BigDecimal("100"), new BigDecimal("107"));
+        assertThat(stockLedger.history(flour.id(), 100).stream()
+                .map(StockMovementResponse::delta)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)).isEqualByComparingTo(stock);
+    }
+
+    @Test
+    @DisplayName("Should not fail consumptions that race with the compactor")
+    void shouldConsumeWhileCompacting() throws Exception {
+        List<Future<StockMovementResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+            Future<?> compactions = executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    stockCompactor.compact();
+                }
+            });
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> stockLedger.record(flour.id(),
+                        new StockMovementRequest(BigDecimal.ONE.negate(), StockMovement.Reason.CONSUMPTION))));
+            }
+            for (Future<StockMovementResponse> future : futures) {
+                future.get();
+            }
+            compactions.get();
+        }
+        stockCompactor.compact();
+
+        assertThat(rawMaterialService.findById(flour.id()).stockQuantity()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Should reject movements that would leave stock negative or contradict their reason")
+    void shouldRejectInvalidMovements() {
+        assertThatThrownBy(() -> stockLedger.record(flour.id(),
+                new StockMovementRequest(new BigDecimal("-11"), StockMovement.Reason.ADJUSTMENT)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("RM-001 (required 11, available 10)");
+        assertThatThrownBy(() -> stockLedger.record(flour.id(),
+                new StockMovementRequest(new BigDecimal("-1"), StockMovement.Reason.RECEIPT)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stockLedger.record(flour.id(),
+                new StockMovementRequest(BigDecimal.ZERO, StockMovement.Reason.ADJUSTMENT)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(stockLedger.history(flour.id(), null)).hasSize(1);
+    }
+}
@@ -0,0 +1,123 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.ProductResponse;
+import com.projedata.productionmanager.dto.ProductionExecutionRequest;
+import com.projedata.productionmanager.dto.ProductionExecutionResponse;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class SubAssemblyTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductionCalculatorService calculatorService;
+
+    @Autowired
+    private ProductionExecutionService executionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterialResponse flour;
+    private RawMaterialResponse sugar;
+    private ProductResponse dough;
+    private ProductResponse cake;
+
+    @BeforeEach
+    void setUp() {
+        flour = rawMaterialService.create(new RawMaterialRequest("RM-001", "Flour", new BigDecimal("100")));
+        sugar = rawMaterialService.create(new RawMaterialRequest("RM-002", "Sugar", new BigDecimal("10")));
+        // Massa: 2 de farinha. Bolo: 3 massas + 1 de açúcar = 6 de farinha + 1 de açúcar por unidade
+        dough = productService.create(new ProductRequest("P-001", "Dough", new BigDecimal("1.00"),
+                List.of(new ProductIngredientRequest(flour.id(), new BigDecimal("2")))));
+        cake = productService.create(new ProductRequest("P-002", "Cake", new BigDecimal("50.00"),
+                List.of(ProductIngredientRequest.subAssembly(dough.id(), new BigDecimal("3")),
+                        new ProductIngredientRequest(sugar.id(), new BigDecimal("1")))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Quem usa um subconjunto foi criado depois dele e precisa sair antes
+        productRepository.deleteAll(productRepository.findAll(Sort.by(Sort.Direction.DESC, "id")));
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should suggest and execute products through their exploded sub-assemblies")
+    void shouldExplodeSubAssemblies() {
+        assertThat(productService.findById(cake.id()).ingredients())
+                .extracting(i -> i.subAssembly() == null ? null : i.subAssembly().code(),
+                        i -> i.rawMaterial() == null ? null : i.rawMaterial().code())
+                .containsExactly(tuple("P-001", null), tuple(null, "RM-002"));
+
+        // Bolo primeiro: min(100 / 6, 10 / 1) = 10 unidades, sobram 40 de farinha -> 20 massas
+        ProductionSuggestionResponse suggestion = calculatorService.calculate("greedy", null);
+        assertThat(suggestion.items())
+                .extracting(i -> i.productCode(), i -> i.quantity())
+                .containsExactly(tuple("P-002", 10), tuple("P-001", 20));
+        assertThat(suggestion.grandTotal()).isEqualByComparingTo("520.00");
+        assertThat(calculatorService.calculate("decimal", null).grandTotal()).isEqualByComparingTo("520.00");
+
+        ProductionExecutionResponse executed = executionService.execute(
+                new ProductionExecutionRequest(Map.of(cake.id(), 2, dough.id(), 1)));
+        assertThat(executed.consumed())
+                .extracting(c -> c.rawMaterialCode(), c -> c.consumed().intValue())
+                .containsExactly(tuple("RM-001", 14), tuple("RM-002", 2));
+    }
+
+    @Test
+    @DisplayName("Should reject compositions that would close a sub-assembly cycle")
+    void shouldRejectCycles() {
+        ProductResponse box = productService.create(new ProductRequest("P-003", "Box", new BigDecimal("80.00"),
+                List.of(ProductIngredientRequest.subAssembly(cake.id(), BigDecimal.ONE))));
+
+        assertThatThrownBy(() -> productService.update(dough.id(), new ProductRequest("P-001", "Dough",
+                new BigDecimal("1.00"), List.of(ProductIngredientRequest.subAssembly(box.id(), BigDecimal.ONE)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cycle");
+        assertThatThrownBy(() -> productService.update(dough.id(), new ProductRequest("P-001", "Dough",
+                new BigDecimal("1.00"), List.of(ProductIngredientRequest.subAssembly(dough.id(), BigDecimal.ONE)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cycle");
+        assertThatThrownBy(() -> productService.create(new ProductRequest("P-004", "Pie", new BigDecimal("9.00"),
+                List.of(new ProductIngredientRequest(flour.id(), dough.id(), BigDecimal.ONE)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exactly one");
+        assertThatThrownBy(() -> productService.delete(dough.id()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("P-002");
+
+        assertThat(productService.findById(dough.id()).ingredients())
+                .extracting(i -> i.rawMaterial().code())
+                .containsExactly("RM-001");
+    }
+}
@@ -0,0 +1,92 @@
+package com.projedata.productionmanager.service;
+
+import com.projedata.productionmanager.dto.ProductIngredientRequest;
+import com.projedata.productionmanager.dto.ProductRequest;
+import com.projedata.productionmanager.dto.ProductionSuggestionResponse;
+import com.projedata.productionmanager.dto.RawMaterialRequest;
+import com.projedata.productionmanager.dto.RawMaterialResponse;
+import com.projedata.productionmanager.repository.ProductRepository;
+import com.projedata.productionmanager.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"production.materialization.debounce-ms=400",
+        "production.materialization.max-delay-ms=10000"})
+class SuggestionMaterializerTest {
+
+    @Autowired
+    private SuggestionMaterializer materializer;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should serve the previous suggestion as stale and recompute once after a burst of writes")
+    void shouldDebounceWritesIntoOneRecompute() throws Exception {
+        awaitFresh();
+        double before = materializations();
+
+        RawMaterialResponse flour = rawMaterialService.create(
+                new RawMaterialRequest("RM-001", "Flour", new BigDecimal("10")));
+        for (int i = 1; i <= 3; i++) {
+            productService.create(new ProductRequest("P-00" + i, "Bread " + i, new BigDecimal(i),
+                    List.of(new ProductIngredientRequest(flour.id(), new BigDecimal("2")))));
+        }
+
+        SuggestionMaterializer.Materialized stale = materializer.current();
+        assertThat(stale.suggestion().stale()).isTrue();
+        assertThat(stale.catalogVersion()).isLessThan(catalogSnapshotService.version());
+
+        SuggestionMaterializer.Materialized fresh = awaitFresh();
+        ProductionSuggestionResponse suggestion = fresh.suggestion();
+        assertThat(suggestion.stale()).isFalse();
+        assertThat(suggestion.computedAt()).isAfter(stale.suggestion().computedAt());
+        assertThat(suggestion.grandTotal()).isEqualByComparingTo("15");
+        assertThat(materializations() - before).isEqualTo(1);
+    }
+
+    private SuggestionMaterializer.Materialized awaitFresh() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            SuggestionMaterializer.Materialized current = materializer.current();
+            if (!current.suggestion().stale()) {
+                return current;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Suggestion was not recomputed");
+    }
+
+    private double materializations() {
+        return meterRegistry.counter("production.suggestion.materializations", "outcome", "success").count();
+    }
+}
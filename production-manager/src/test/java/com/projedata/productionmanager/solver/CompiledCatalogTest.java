@@ -0,0 +1,231 @@
+package com.projedata.productionmanager.solver;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledCatalogTest {
+
+    @Test
+    @DisplayName("Greedy on fixed-point kernel should match BigDecimal greedy exactly")
+    void greedyShouldMatchBigDecimalReference() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<RawMaterial> materials = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(6); i++) {
+                materials.add(rawMaterial((long) i, randomDecimal(random, 5000)));
+            }
+            List<Product> products = new ArrayList<>();
+            for (int j = 0; j < random.nextInt(12); j++) {
+                Product product = product((long) j, BigDecimal.valueOf(1 + random.nextInt(20)));
+                for (RawMaterial material : materials) {
+                    if (random.nextBoolean()) {
+                        addIngredient(product, material, randomDecimal(random, 300).add(new BigDecimal("0.01")));
+                    }
+                }
+                products.add(product);
+            }
+            products.sort(Comparator.comparing(Product::getPrice).reversed());
+
+            CompiledCatalog catalog = CompiledCatalog.compile(products);
+            int[] units = catalog.greedy(catalog.stock());
+
+            Map<Long, Integer> expected = referenceGreedy(products);
+            for (int j = 0; j < catalog.productCount(); j++) {
+                assertThat(units[j]).isEqualTo(expected.getOrDefault(catalog.product(j).getId(), 0));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental greedy after stock changes should match a full recomputation")
+    void incrementalGreedyShouldMatchFullRecomputation() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            List<RawMaterial> materials = new ArrayList<>();
+            for (int i = 0; i < 2 + random.nextInt(5); i++) {
+                materials.add(rawMaterial((long) i, BigDecimal.valueOf(random.nextInt(500))));
+            }
+            List<Product> products = new ArrayList<>();
+            for (int j = 0; j < 1 + random.nextInt(15); j++) {
+                Product product = product((long) j, BigDecimal.valueOf(1 + random.nextInt(20)));
+                addIngredient(product, materials.get(random.nextInt(materials.size())), BigDecimal.valueOf(1 + random.nextInt(40)));
+                if (random.nextBoolean()) {
+                    addIngredient(product, materials.get(random.nextInt(materials.size())), BigDecimal.valueOf(1 + random.nextInt(40)));
+                }
+                products.add(product);
+            }
+            products.sort(Comparator.comparing(Product::getPrice).reversed());
+
+            CompiledCatalog previous = CompiledCatalog.compile(products);
+            long[] remaining = previous.stock();
+            int[] previousUnits = previous.greedy(remaining);
+
+            Map<Long, BigDecimal> changes = new HashMap<>();
+            for (int c = 0; c < 1 + random.nextInt(2); c++) {
+                changes.put((long) random.nextInt(materials.size()), BigDecimal.valueOf(random.nextInt(500)));
+            }
+            CompiledCatalog current = previous.withStock(changes, Map.of());
+
+            int[] incremental = current.greedyFrom(previous, previousUnits, remaining);
+            long[] expectedRemaining = current.stock();
+            int[] full = current.greedy(expectedRemaining);
+
+            assertThat(incremental).containsExactly(full);
+            assertThat(remaining).containsExactly(expectedRemaining);
+        }
+    }
+
+    @Test
+    @DisplayName("Greedy per connected component should match the greedy over the whole catalog")
+    void componentGreedyShouldMatchFullGreedy() {
+        Random random = new Random(13);
+        for (int round = 0; round < 200; round++) {
+            List<RawMaterial> materials = new ArrayList<>();
+            for (int i = 0; i < 2 + random.nextInt(10); i++) {
+                materials.add(rawMaterial((long) i, BigDecimal.valueOf(random.nextInt(500))));
+            }
+            List<Product> products = new ArrayList<>();
+            for (int j = 0; j < 1 + random.nextInt(15); j++) {
+                Product product = product((long) j, BigDecimal.valueOf(1 + random.nextInt(20)));
+                addIngredient(product, materials.get(random.nextInt(materials.size())), BigDecimal.valueOf(1 + random.nextInt(40)));
+                if (random.nextInt(3) == 0) {
+                    addIngredient(product, materials.get(random.nextInt(materials.size())), BigDecimal.valueOf(1 + random.nextInt(40)));
+                }
+                products.add(product);
+            }
+            products.sort(Comparator.comparing(Product::getPrice).reversed());
+            CompiledCatalog catalog = CompiledCatalog.compile(products);
+
+            int[] units = new int[catalog.productCount()];
+            long[] remaining = catalog.stock();
+            for (int c = catalog.componentCount() - 1; c >= 0; c--) {
+                catalog.greedyComponent(c, units, remaining);
+            }
+            long[] expectedRemaining = catalog.stock();
+
+            assertThat(units).containsExactly(catalog.greedy(expectedRemaining));
+            assertThat(remaining).containsExactly(expectedRemaining);
+        }
+    }
+
+    @Test
+    @DisplayName("Should split products sharing no raw material into restricted catalogs")
+    void shouldSplitIndependentComponents() {
+        RawMaterial flour = rawMaterial(1L, new BigDecimal("10"));
+        RawMaterial sugar = rawMaterial(2L, new BigDecimal("6"));
+        RawMaterial wood = rawMaterial(3L, new BigDecimal("9"));
+        Product cake = product(1L, new BigDecimal("30"));
+        addIngredient(cake, flour, new BigDecimal("2"));
+        addIngredient(cake, sugar, new BigDecimal("1"));
+        Product chair = product(2L, new BigDecimal("20"));
+        addIngredient(chair, wood, new BigDecimal("3"));
+        Product bread = product(3L, new BigDecimal("10"));
+        addIngredient(bread, flour, new BigDecimal("1"));
+
+        CompiledCatalog catalog = CompiledCatalog.compile(List.of(cake, chair, bread));
+        CompiledCatalog bakery = catalog.restrict(0);
+
+        assertThat(catalog.componentCount()).isEqualTo(2);
+        assertThat(catalog.componentProducts(0)).containsExactly(0, 2);
+        assertThat(catalog.componentProducts(1)).containsExactly(1);
+        assertThat(bakery.productCount()).isEqualTo(2);
+        assertThat(bakery.materialCount()).isEqualTo(2);
+        assertThat(bakery.greedy(bakery.stock())).containsExactly(5, 0);
+        assertThat(catalog.restrict(1).greedy(catalog.restrict(1).stock())).containsExactly(3);
+    }
+
+    @Test
+    @DisplayName("Should skip products without positive ingredient quantities")
+    void shouldSkipProductsWithoutIngredients() {
+        Product empty = product(1L, new BigDecimal("10"));
+        Product real = product(2L, new BigDecimal("5"));
+        addIngredient(real, rawMaterial(1L, new BigDecimal("10")), new BigDecimal("2.5"));
+
+        CompiledCatalog catalog = CompiledCatalog.compile(List.of(empty, real));
+
+        assertThat(catalog.productCount()).isEqualTo(1);
+        assertThat(catalog.product(0).getId()).isEqualTo(2L);
+        assertThat(catalog.scale()).isEqualTo(1);
+        assertThat(catalog.greedy(catalog.stock())).containsExactly(4);
+    }
+
+    @Test
+    @DisplayName("Should detect quantities that overflow the fixed-point range")
+    void shouldDetectOverflow() {
+        Product product = product(1L, new BigDecimal("10"));
+        addIngredient(product, rawMaterial(1L, new BigDecimal("100000000000000000000")), new BigDecimal("1"));
+
+        assertThatThrownBy(() -> CompiledCatalog.compile(List.of(product)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    // --- Auxiliares ---
+
+    private Map<Long, Integer> referenceGreedy(List<Product> products) {
+        Map<Long, BigDecimal> stock = new HashMap<>();
+        products.forEach(p -> p.getIngredients().forEach(i ->
+                stock.putIfAbsent(i.getRawMaterial().getId(), i.getRawMaterial().getStockQuantity())));
+        Map<Long, Integer> units = new HashMap<>();
+        for (Product product : products) {
+            int feasible = Integer.MAX_VALUE;
+            for (ProductIngredient ingredient : product.getIngredients()) {
+                BigDecimal available = stock.get(ingredient.getRawMaterial().getId());
+                feasible = Math.min(feasible, available.divideToIntegralValue(ingredient.getQuantityRequired()).intValue());
+            }
+            if (feasible <= 0 || feasible == Integer.MAX_VALUE) {
+                continue;
+            }
+            for (ProductIngredient ingredient : product.getIngredients()) {
+                stock.merge(ingredient.getRawMaterial().getId(),
+                        ingredient.getQuantityRequired().multiply(BigDecimal.valueOf(feasible)), BigDecimal::subtract);
+            }
+            units.put(product.getId(), feasible);
+        }
+        return units;
+    }
+
+    private BigDecimal randomDecimal(Random random, int max) {
+        return BigDecimal.valueOf(random.nextInt(max * 100), random.nextInt(3));
+    }
+
+    private RawMaterial rawMaterial(Long id, BigDecimal stock) {
+        RawMaterial rm = new RawMaterial();
+        rm.setId(id);
+        rm.setCode("RM-" + id);
+        rm.setName("Material " + id);
+        rm.setStockQuantity(stock);
+        return rm;
+    }
+
+    private Product product(Long id, BigDecimal price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode("P-" + id);
+        product.setName("Product " + id);
+        product.setPrice(price);
+        product.setIngredients(new ArrayList<>());
+        return product;
+    }
+
+    private void addIngredient(Product product, RawMaterial rawMaterial, BigDecimal quantity) {
+        ProductIngredient ingredient = new ProductIngredient();
+        ingredient.setProduct(product);
+        ingredient.setRawMaterial(rawMaterial);
+        ingredient.setQuantityRequired(quantity);
+        product.getIngredients().add(ingredient);
+    }
+}
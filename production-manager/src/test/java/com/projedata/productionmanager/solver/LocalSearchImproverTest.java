@@ -0,0 +1,89 @@
+package com.projedata.productionmanager.solver;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalSearchImproverTest {
+
+    @Test
+    @DisplayName("Improved plans should stay feasible, never lose value and never beat the exact optimum")
+    void improvedPlansShouldBeFeasibleAndBounded() {
+        Random random = new Random(23);
+        for (int round = 0; round < 100; round++) {
+            List<RawMaterial> materials = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                materials.add(rawMaterial((long) i, BigDecimal.valueOf(5 + random.nextInt(40))));
+            }
+            List<Product> products = new ArrayList<>();
+            for (int j = 0; j < 1 + random.nextInt(6); j++) {
+                Product product = product((long) j, BigDecimal.valueOf(1 + random.nextInt(30)));
+                for (RawMaterial material : materials) {
+                    if (random.nextInt(3) > 0) {
+                        addIngredient(product, material, BigDecimal.valueOf(1 + random.nextInt(9)));
+                    }
+                }
+                products.add(product);
+            }
+            products.sort(Comparator.comparing(Product::getPrice).reversed());
+            CompiledCatalog catalog = CompiledCatalog.compile(products);
+
+            long[] greedyRemaining = catalog.stock();
+            int[] greedy = catalog.greedy(greedyRemaining);
+            LocalSearchImprover.Result result = new LocalSearchImprover(catalog, round)
+                    .improve(greedy, greedyRemaining, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+
+            long[] units = new long[result.units().length];
+            for (int j = 0; j < units.length; j++) {
+                units[j] = result.units()[j];
+            }
+            long[] residual = new long[catalog.materialCount()];
+            assertThat(catalog.residual(units, residual)).isTrue();
+            assertThat(residual).containsExactly(result.remaining());
+            BigDecimal value = catalog.valueOf(result.units());
+            assertThat(value).isGreaterThanOrEqualTo(catalog.valueOf(greedy));
+            BigDecimal optimum = new BranchAndBoundSolver(catalog, TimeUnit.SECONDS.toNanos(5)).solve().value();
+            assertThat(value).isLessThanOrEqualTo(optimum);
+        }
+    }
+
+    // --- Auxiliares ---
+
+    private RawMaterial rawMaterial(Long id, BigDecimal stock) {
+        RawMaterial rm = new RawMaterial();
+        rm.setId(id);
+        rm.setCode("RM-" + id);
+        rm.setName("Material " + id);
+        rm.setStockQuantity(stock);
+        return rm;
+    }
+
+    private Product product(Long id, BigDecimal price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode("P-" + id);
+        product.setName("Product " + id);
+        product.setPrice(price);
+        product.setIngredients(new ArrayList<>());
+        return product;
+    }
+
+    private void addIngredient(Product product, RawMaterial rawMaterial, BigDecimal quantity) {
+        ProductIngredient ingredient = new ProductIngredient();
+        ingredient.setProduct(product);
+        ingredient.setRawMaterial(rawMaterial);
+        ingredient.setQuantityRequired(quantity);
+        product.getIngredients().add(ingredient);
+    }
+}
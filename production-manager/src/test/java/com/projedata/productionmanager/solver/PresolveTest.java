@@ -0,0 +1,106 @@
+package com.projedata.productionmanager.solver;
+
+import com.projedata.productionmanager.entity.Product;
+import com.projedata.productionmanager.entity.ProductIngredient;
+import com.projedata.productionmanager.entity.RawMaterial;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresolveTest {
+
+    @Test
+    @DisplayName("Should drop dead, duplicate and dominated products and report each count")
+    void shouldReportRemovedProducts() {
+        RawMaterial flour = rawMaterial(1L, new BigDecimal("10"));
+        RawMaterial sugar = rawMaterial(2L, new BigDecimal("5"));
+        RawMaterial yeast = rawMaterial(3L, BigDecimal.ZERO);
+        Product cake = product(1L, "30", flour, "2", sugar, "1");
+        Product cakeCopy = product(2L, "25", flour, "2", sugar, "1");
+        Product bigCake = product(3L, "20", flour, "3", sugar, "1");
+        Product bread = product(4L, "15", yeast, "1");
+        Product cookie = product(5L, "10", flour, "1");
+
+        CompiledCatalog catalog = CompiledCatalog.compile(List.of(cake, cakeCopy, bigCake, bread, cookie));
+        Presolve presolve = Presolve.apply(catalog);
+
+        assertThat(presolve.stats()).isEqualTo(new Presolve.Stats(5, 1, 1, 1, 2));
+        assertThat(presolve.reduced().productCount()).isEqualTo(2);
+        assertThat(presolve.reduced().product(1).getId()).isEqualTo(5L);
+        long[] remaining = presolve.reduced().stock();
+        int[] units = presolve.expandUnits(presolve.reduced().greedy(remaining));
+        assertThat(units).containsExactly(5, 0, 0, 0, 0);
+        assertThat(presolve.expandRemaining(remaining)).containsExactly(0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Greedy over the presolved catalog should match the greedy over the whole catalog")
+    void presolvedGreedyShouldMatchFullGreedy() {
+        Random random = new Random(17);
+        for (int round = 0; round < 300; round++) {
+            List<RawMaterial> materials = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                materials.add(rawMaterial((long) i, BigDecimal.valueOf(random.nextInt(60))));
+            }
+            List<Product> products = new ArrayList<>();
+            for (int j = 0; j < 1 + random.nextInt(12); j++) {
+                Product product = product((long) j, String.valueOf(1 + random.nextInt(8)));
+                for (RawMaterial material : materials) {
+                    if (random.nextInt(3) > 0) {
+                        addIngredient(product, material, BigDecimal.valueOf(1 + random.nextInt(6)));
+                    }
+                }
+                products.add(product);
+            }
+            products.sort(Comparator.comparing(Product::getPrice).reversed());
+            CompiledCatalog catalog = CompiledCatalog.compile(products);
+
+            Presolve presolve = Presolve.apply(catalog);
+            long[] remaining = presolve.reduced().stock();
+            int[] units = presolve.expandUnits(presolve.reduced().greedy(remaining));
+            long[] expectedRemaining = catalog.stock();
+
+            assertThat(units).containsExactly(catalog.greedy(expectedRemaining));
+            assertThat(presolve.expandRemaining(remaining)).containsExactly(expectedRemaining);
+        }
+    }
+
+    // --- Auxiliares ---
+
+    private RawMaterial rawMaterial(Long id, BigDecimal stock) {
+        RawMaterial rm = new RawMaterial();
+        rm.setId(id);
+        rm.setCode("RM-" + id);
+        rm.setName("Material " + id);
+        rm.setStockQuantity(stock);
+        return rm;
+    }
+
+    private Product product(Long id, String price, Object... ingredients) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode("P-" + id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal(price));
+        product.setIngredients(new ArrayList<>());
+        for (int i = 0; i < ingredients.length; i += 2) {
+            addIngredient(product, (RawMaterial) ingredients[i], new BigDecimal((String) ingredients[i + 1]));
+        }
+        return product;
+    }
+
+    private void addIngredient(Product product, RawMaterial rawMaterial, BigDecimal quantity) {
+        ProductIngredient ingredient = new ProductIngredient();
+        ingredient.setProduct(product);
+        ingredient.setRawMaterial(rawMaterial);
+        ingredient.setQuantityRequired(quantity);
+        product.getIngredients().add(ingredient);
+    }
+}